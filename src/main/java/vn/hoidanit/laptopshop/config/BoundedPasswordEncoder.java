@@ -0,0 +1,115 @@
+package vn.hoidanit.laptopshop.config;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/*
+ * chạy encode/matches (bcrypt rất tốn CPU) trên 1 pool riêng có giới hạn:
+ * - tối đa `parallelism` thread hash cùng lúc, phần CPU còn lại cho các request khác
+ * - hàng đợi có giới hạn, đầy thì từ chối ngay (back-pressure) thay vì dồn ứ
+ * - thread gọi chỉ chờ tối đa `waitTimeout`, quá thì báo hệ thống đang bận
+ * - encode ném PasswordEncoderBusyException (form tự báo lỗi), chỉ matches mới là lỗi xác thực
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMillis;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int parallelism, int queueCapacity,
+            Duration waitTimeout) {
+        if (parallelism < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("parallelism và queueCapacity phải >= 1");
+        }
+        this.delegate = delegate;
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> this.delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        try {
+            return call(() -> this.delegate.matches(rawPassword, encodedPassword));
+        } catch (PasswordEncoderBusyException e) {
+            throw new AuthenticationServiceException(e.getMessage(), e);
+        }
+    }
+
+    // chỉ đọc prefix/cost trong hash, không cần đưa vào pool
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int getQueueSize() {
+        return this.executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return this.executor.getActiveCount();
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = this.executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordEncoderBusyException("Hệ thống đang bận, vui lòng thử lại sau", e);
+        }
+
+        try {
+            return future.get(this.waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordEncoderBusyException("Hệ thống đang bận, vui lòng thử lại sau", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "password-hash-" + this.counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package vn.hoidanit.laptopshop.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ORDER_HISTORY_CACHE = "orderHistory";
+    public static final String USER_PRINCIPAL_CACHE = "userPrincipal";
+
+    /*
+     * mỗi cache có giới hạn size + TTL riêng
+     */
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${laptopshop.cache.user-principal-ttl:PT1M}") Duration userPrincipalTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        // trang đầu lịch sử mua hàng theo user id
+        cacheManager.registerCustomCache(ORDER_HISTORY_CACHE, Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build());
+
+        // thông tin đăng nhập theo email (lower case), TTL ngắn
+        cacheManager.registerCustomCache(USER_PRINCIPAL_CACHE, Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(userPrincipalTtl)
+                .build());
+
+        return cacheManager;
+    }
+}
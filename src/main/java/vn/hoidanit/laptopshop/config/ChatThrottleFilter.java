@@ -0,0 +1,54 @@
+package vn.hoidanit.laptopshop.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import vn.hoidanit.laptopshop.service.throttle.TokenBucketTable;
+
+/*
+ * giới hạn POST /api/v1/chat theo IP (khách chưa đăng nhập cũng gọi được)
+ * - semaphore của ChatGatewayService chỉ giới hạn tổng, 1 IP vẫn chiếm được hết -> thêm bucket theo IP
+ * - body phải có Content-Length và không quá maxRequestBytes, chặn trước khi Jackson đọc history
+ */
+public class ChatThrottleFilter extends OncePerRequestFilter {
+
+    private final TokenBucketTable ipBuckets;
+    private final long maxRequestBytes;
+
+    public ChatThrottleFilter(TokenBucketTable ipBuckets, long maxRequestBytes) {
+        this.ipBuckets = ipBuckets;
+        this.maxRequestBytes = maxRequestBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !"/api/v1/chat".equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long length = request.getContentLengthLong();
+        if (length < 0 || length > this.maxRequestBytes) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+
+        if (!this.ipBuckets.tryAcquire(TokenBucketTable.hash(request.getRemoteAddr(), false), System.nanoTime())) {
+            long retryAfterSeconds = this.ipBuckets.retryAfterSeconds();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Bạn hỏi quá nhanh, vui lòng thử lại sau " + retryAfterSeconds + " giây");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
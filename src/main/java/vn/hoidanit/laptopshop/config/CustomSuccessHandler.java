@@ -4,9 +4,7 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.web.DefaultRedirectStrategy;
@@ -18,15 +16,10 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
-import vn.hoidanit.laptopshop.domain.Cart;
-import vn.hoidanit.laptopshop.domain.User;
-import vn.hoidanit.laptopshop.service.UserService;
+import vn.hoidanit.laptopshop.service.UserPrincipal;
 
 public class CustomSuccessHandler implements AuthenticationSuccessHandler {
 
-    @Autowired
-    private UserService userService;
-
     protected String determineTargetUrl(final Authentication authentication) {
 
         Map<String, String> roleTargetUrlMap = new HashMap<>();
@@ -50,19 +43,13 @@ public class CustomSuccessHandler implements AuthenticationSuccessHandler {
             return;
         }
         session.removeAttribute(WebAttributes.AUTHENTICATION_EXCEPTION);
-        // get email
-        String email = authentication.getName();
-        // query user
-        User user = this.userService.getUserByEmail(email);
-        if (user != null) {
+        // principal đã có sẵn thông tin user từ lúc xác thực, không query lại
+        if (authentication.getPrincipal() instanceof UserPrincipal user) {
             session.setAttribute("fullName", user.getFullName());
             session.setAttribute("avatar", user.getAvatar());
             session.setAttribute("id", user.getId());
             session.setAttribute("email", user.getEmail());
-            int sum = Optional.ofNullable(user.getCart())
-                    .map(Cart::getSum)
-                    .orElse(0);
-            session.setAttribute("sum", sum);
+            session.setAttribute("sum", user.getCartSum());
         }
 
     }
@@ -0,0 +1,144 @@
+package vn.hoidanit.laptopshop.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/*
+ * chỉ URL có fingerprint (styles-{md5}.css) mới được cache lâu, immutable
+ * - VersionResourceResolver bỏ version khỏi path khi resolve -> tên file thật khác tên trong URL
+ * - URL không có version (url(...) trong css nén sẵn, link gõ tay...) giữ cache-control ngắn của handler
+ * - header được gắn vào resource (HttpResource), ResourceHttpRequestHandler ghi đè lên cache-control mặc định
+ */
+public class FingerprintCacheResolver extends AbstractResourceResolver {
+
+    private final CacheControl fingerprintedCacheControl;
+
+    public FingerprintCacheResolver(CacheControl fingerprintedCacheControl) {
+        this.fingerprintedCacheControl = fingerprintedCacheControl;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+            List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null || StringUtils.getFilename(requestPath).equals(resource.getFilename())) {
+            return resource;
+        }
+        return new FingerprintedResource(resource, this.fingerprintedCacheControl.getHeaderValue());
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    // giữ nguyên header của resource gốc (ETag, Content-Encoding, Vary), thêm Cache-Control
+    private static final class FingerprintedResource extends AbstractResource implements HttpResource {
+        private final Resource original;
+        private final String cacheControl;
+
+        FingerprintedResource(Resource original, String cacheControl) {
+            this.original = original;
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        public boolean exists() {
+            return this.original.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return this.original.isReadable();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return this.original.isOpen();
+        }
+
+        @Override
+        public boolean isFile() {
+            return this.original.isFile();
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return this.original.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return this.original.getURI();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return this.original.getFile();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return this.original.getInputStream();
+        }
+
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            return this.original.readableChannel();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return this.original.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return this.original.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return this.original.createRelative(relativePath);
+        }
+
+        @Override
+        @Nullable
+        public String getFilename() {
+            return this.original.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return this.original.getDescription();
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            if (this.original instanceof HttpResource httpResource) {
+                headers.putAll(httpResource.getResponseHeaders());
+            }
+            headers.setCacheControl(this.cacheControl);
+            return headers;
+        }
+    }
+}
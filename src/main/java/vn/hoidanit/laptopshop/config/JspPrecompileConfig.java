@@ -0,0 +1,149 @@
+package vn.hoidanit.laptopshop.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.ClassUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRegistration;
+
+/*
+ * laptopshop.jsp.precompiled=true: dùng các JSP đã được JspC dịch sẵn lúc build (mvn -Pprecompile-jsp)
+ * - đọc META-INF/jspc-web-fragment.xml do JspC sinh ra, đăng ký từng servlet với mapping chính xác
+ *   (vd /WEB-INF/view/client/homepage/show.jsp) -> thắng mapping *.jsp của Jasper, không compile lúc chạy
+ * - fail ngay lúc start nếu thiếu file mapping, class không load được,
+ *   hoặc có JSP trong /WEB-INF/view chưa được precompile (build cũ)
+ */
+@Configuration
+@ConditionalOnProperty(name = "laptopshop.jsp.precompiled", havingValue = "true")
+public class JspPrecompileConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(JspPrecompileConfig.class);
+    private static final String FRAGMENT = "META-INF/jspc-web-fragment.xml";
+    private static final String VIEW_ROOT = "/WEB-INF/view/";
+
+    @Bean
+    public ServletContextInitializer precompiledJspInitializer() {
+        return this::registerPrecompiledJsps;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void registerPrecompiledJsps(ServletContext servletContext) throws ServletException {
+        Map<String, String> servlets = readFragment();
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+
+        List<String> errors = new ArrayList<>();
+        int registered = 0;
+        for (Map.Entry<String, String> entry : servlets.entrySet()) {
+            String jsp = entry.getKey();
+            String className = entry.getValue();
+            Class<?> servletClass;
+            try {
+                servletClass = ClassUtils.forName(className, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                errors.add(jsp + " -> " + className + " (" + e + ")");
+                continue;
+            }
+            if (!Servlet.class.isAssignableFrom(servletClass)) {
+                errors.add(jsp + " -> " + className + " is not a servlet");
+                continue;
+            }
+            ServletRegistration.Dynamic registration = servletContext.addServlet(className,
+                    (Class<? extends Servlet>) servletClass);
+            if (registration != null) {
+                registration.addMapping(jsp);
+                registered++;
+            }
+        }
+
+        // JSP có trong webapp nhưng không có trong build
+        List<String> sources = new ArrayList<>();
+        collectJsps(servletContext, VIEW_ROOT, sources);
+        for (String jsp : sources) {
+            if (!servlets.containsKey(jsp)) {
+                errors.add(jsp + " was not precompiled");
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new ServletException("Precompiled JSPs are missing or broken:\n  " + String.join("\n  ", errors));
+        }
+        log.info("Registered {} precompiled JSP servlets", registered);
+    }
+
+    // url-pattern -> servlet-class
+    private static Map<String, String> readFragment() throws ServletException {
+        ClassPathResource resource = new ClassPathResource(FRAGMENT);
+        if (!resource.exists()) {
+            throw new ServletException(FRAGMENT + " not found, build with -Pprecompile-jsp");
+        }
+        try (InputStream in = resource.getInputStream()) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            Document document = factory.newDocumentBuilder().parse(in);
+
+            Map<String, String> classes = new LinkedHashMap<>();
+            NodeList servletNodes = document.getElementsByTagName("servlet");
+            for (int i = 0; i < servletNodes.getLength(); i++) {
+                Element servlet = (Element) servletNodes.item(i);
+                classes.put(text(servlet, "servlet-name"), text(servlet, "servlet-class"));
+            }
+
+            Map<String, String> mappings = new LinkedHashMap<>();
+            NodeList mappingNodes = document.getElementsByTagName("servlet-mapping");
+            for (int i = 0; i < mappingNodes.getLength(); i++) {
+                Element mapping = (Element) mappingNodes.item(i);
+                String className = classes.get(text(mapping, "servlet-name"));
+                if (className != null) {
+                    mappings.put(text(mapping, "url-pattern"), className);
+                }
+            }
+            return mappings;
+        } catch (IOException | ParserConfigurationException | SAXException e) {
+            throw new ServletException("Cannot read " + FRAGMENT, e);
+        }
+    }
+
+    private static String text(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() == 0 ? "" : nodes.item(0).getTextContent().trim();
+    }
+
+    private static void collectJsps(ServletContext servletContext, String path, List<String> result) {
+        Set<String> children = servletContext.getResourcePaths(path);
+        if (children == null) {
+            return;
+        }
+        for (String child : children) {
+            if (child.endsWith("/")) {
+                collectJsps(servletContext, child, result);
+            } else if (child.endsWith(".jsp")) {
+                result.add(child);
+            }
+        }
+    }
+}
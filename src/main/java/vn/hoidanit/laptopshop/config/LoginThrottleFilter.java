@@ -0,0 +1,68 @@
+package vn.hoidanit.laptopshop.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import vn.hoidanit.laptopshop.service.throttle.TokenBucketTable;
+
+/*
+ * giới hạn số lần POST /login và /register theo IP và theo tài khoản (email)
+ * chạy trước khi spring security xác thực -> request bị chặn trả 429 ngay,
+ * không tốn bcrypt hay query DB
+ * IP lấy từ getRemoteAddr(): sau reverse proxy là IP client nhờ server.forward-headers-strategy=native
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private final TokenBucketTable ipBuckets;
+    private final TokenBucketTable accountBuckets;
+
+    public LoginThrottleFilter(TokenBucketTable ipBuckets, TokenBucketTable accountBuckets) {
+        this.ipBuckets = ipBuckets;
+        this.accountBuckets = accountBuckets;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return !"/login".equals(path) && !"/register".equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        long now = System.nanoTime();
+
+        if (!this.ipBuckets.tryAcquire(TokenBucketTable.hash(request.getRemoteAddr(), false), now)) {
+            reject(response, this.ipBuckets.retryAfterSeconds());
+            return;
+        }
+
+        // form login dùng "username", form đăng ký dùng "email"
+        String account = "/login".equals(request.getServletPath())
+                ? request.getParameter("username")
+                : request.getParameter("email");
+        if (account != null && !account.isEmpty()
+                && !this.accountBuckets.tryAcquire(TokenBucketTable.hash(account, true), now)) {
+            reject(response, this.accountBuckets.retryAfterSeconds());
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Bạn thao tác quá nhanh, vui lòng thử lại sau " + retryAfterSeconds + " giây");
+    }
+}
@@ -0,0 +1,33 @@
+package vn.hoidanit.laptopshop.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import vn.hoidanit.laptopshop.service.session.MappedSessionRepository;
+
+/*
+ * laptopshop.session.store=mmap: lưu session vào file memory-mapped thay cho bảng SPRING_SESSION
+ * (chỉ dùng khi chạy 1 node). Khi có bean SessionRepository này, spring boot tự bỏ cấu hình JDBC session
+ */
+@Configuration
+@ConditionalOnProperty(name = "laptopshop.session.store", havingValue = "mmap")
+@EnableSpringHttpSession
+public class MappedSessionConfig {
+
+    @Bean(destroyMethod = "close")
+    public MappedSessionRepository sessionRepository(
+            @Value("${laptopshop.session.mmap.path:./data/sessions.mmap}") Path path,
+            @Value("${laptopshop.session.mmap.slot-count:65536}") int slotCount,
+            @Value("${laptopshop.session.mmap.slot-size:8192}") int slotSize,
+            @Value("${laptopshop.session.mmap.sweep-interval:PT1M}") Duration sweepInterval,
+            @Value("${spring.session.timeout:30m}") Duration timeout) throws IOException {
+        return new MappedSessionRepository(path, slotCount, slotSize, timeout, sweepInterval);
+    }
+}
@@ -0,0 +1,13 @@
+package vn.hoidanit.laptopshop.config;
+
+/*
+ * pool hash mật khẩu đã đầy hoặc chờ quá lâu
+ * - encode (đăng ký, tạo user) bắt lỗi này để báo "thử lại" trên form
+ * - matches (đăng nhập) đổi thành AuthenticationServiceException cho spring security
+ */
+public class PasswordEncoderBusyException extends RuntimeException {
+
+    public PasswordEncoderBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
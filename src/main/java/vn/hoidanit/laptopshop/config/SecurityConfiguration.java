@@ -1,15 +1,33 @@
 package vn.hoidanit.laptopshop.config;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.session.security.web.authentication.SpringSessionRememberMeServices;
 
@@ -17,6 +35,7 @@ import jakarta.servlet.DispatcherType;
 
 import vn.hoidanit.laptopshop.service.CustomUserDetailsService;
 import vn.hoidanit.laptopshop.service.UserService;
+import vn.hoidanit.laptopshop.service.throttle.TokenBucketTable;
 
 @Configuration
 @EnableMethodSecurity(securedEnabled = true)
@@ -24,10 +43,28 @@ public class SecurityConfiguration {
 
     /*
      * dùng cơ chế Bcrypt để hash mật khẩu người dùng
+     * - hash mới có prefix {bcrypt}, hash cũ (không prefix) vẫn match được bằng bcrypt
+     * - đổi strength thì hash cũ sẽ được hash lại khi user đăng nhập thành công
+     * - encode/matches chạy trên pool riêng có giới hạn, không chiếm hết thread của tomcat
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${laptopshop.password.bcrypt-strength:10}") int strength,
+            @Value("${laptopshop.password.parallelism:0}") int parallelism,
+            @Value("${laptopshop.password.queue-capacity:64}") int queueCapacity,
+            @Value("${laptopshop.password.wait-timeout:PT5S}") Duration waitTimeout) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // 0 = dùng 1 nửa số core, để lại phần còn lại cho request thường
+        int threads = parallelism > 0
+                ? parallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(delegating, threads, queueCapacity, waitTimeout);
     }
 
     /*
@@ -36,7 +73,7 @@ public class SecurityConfiguration {
      * 
      */
     @Bean
-    public UserDetailsService userDetailsService(UserService userService) {
+    public CustomUserDetailsService userDetailsService(UserService userService) {
         return new CustomUserDetailsService(userService);
     }
 
@@ -55,10 +92,23 @@ public class SecurityConfiguration {
     @Bean
     public DaoAuthenticationProvider authProvider(
             PasswordEncoder passwordEncoder,
-            UserDetailsService userDetailsService) {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+            CustomUserDetailsService userDetailsService) {
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider() {
+            // upgrade hash gọi encode sau khi đã match: pool bận thì báo lỗi đăng nhập, không phải 500
+            @Override
+            protected Authentication createSuccessAuthentication(Object principal,
+                    Authentication authentication, UserDetails user) {
+                try {
+                    return super.createSuccessAuthentication(principal, authentication, user);
+                } catch (PasswordEncoderBusyException e) {
+                    throw new AuthenticationServiceException(e.getMessage(), e);
+                }
+            }
+        };
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder);
+        // lưu lại hash mới khi encoder báo cần upgrade (đổi strength / hash cũ không prefix)
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         // authProvider.setHideUserNotFoundExceptions(false);
         return authProvider;
     }
@@ -72,30 +122,89 @@ public class SecurityConfiguration {
         return rememberMeServices;
     }
 
+    /*
+     * rate limit POST /login, /register theo IP và theo email
+     * không khai báo là @Bean để spring boot không tự đăng ký thêm 1 lần vào servlet container
+     */
+    private LoginThrottleFilter loginThrottleFilter(Environment env) {
+        int entries = env.getProperty("laptopshop.throttle.entries", Integer.class, 16384);
+        int stripes = env.getProperty("laptopshop.throttle.stripes", Integer.class, 64);
+        TokenBucketTable ipBuckets = new TokenBucketTable(
+                env.getProperty("laptopshop.throttle.ip.capacity", Integer.class, 20),
+                env.getProperty("laptopshop.throttle.ip.refill-per-minute", Double.class, 30d) / 60,
+                entries, stripes);
+        TokenBucketTable accountBuckets = new TokenBucketTable(
+                env.getProperty("laptopshop.throttle.account.capacity", Integer.class, 5),
+                env.getProperty("laptopshop.throttle.account.refill-per-minute", Double.class, 5d) / 60,
+                entries, stripes);
+        return new LoginThrottleFilter(ipBuckets, accountBuckets);
+    }
+
+    // rate limit POST /api/v1/chat theo IP, dùng chung kích thước bảng với login throttle
+    private ChatThrottleFilter chatThrottleFilter(Environment env) {
+        TokenBucketTable ipBuckets = new TokenBucketTable(
+                env.getProperty("laptopshop.chat.ip.capacity", Integer.class, 5),
+                env.getProperty("laptopshop.chat.ip.refill-per-minute", Double.class, 6d) / 60,
+                env.getProperty("laptopshop.throttle.entries", Integer.class, 16384),
+                env.getProperty("laptopshop.throttle.stripes", Integer.class, 64));
+        return new ChatThrottleFilter(ipBuckets,
+                env.getProperty("laptopshop.chat.max-request-bytes", Long.class, 32768L));
+    }
+
+    /*
+     * static resource: chain riêng, không đọc/tạo session, không csrf, không lưu request
+     */
     @Bean
-    SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    SecurityFilterChain staticResourcesFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/css/**", "/js/**", "/images/**", "/client/**")
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+                .sessionManagement(sessionManagement -> sessionManagement
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .csrf(AbstractHttpConfigurer::disable)
+                .anonymous(AbstractHttpConfigurer::disable)
+                // Cache-Control do resource handler / ImageController tự đặt
+                .headers(headers -> headers.cacheControl(HeadersConfigurer.CacheControlConfig::disable));
+
+        return http.build();
+    }
+
+    @Bean
+    SecurityFilterChain filterChain(HttpSecurity http, Environment env) throws Exception {
         // v6. lambda
         http
+                // chặn sớm, trước session/remember-me/xác thực
+                .addFilterBefore(loginThrottleFilter(env), SecurityContextHolderFilter.class)
+                .addFilterBefore(chatThrottleFilter(env), SecurityContextHolderFilter.class)
                 .authorizeHttpRequests(authorize -> authorize
                         .dispatcherTypeMatchers(DispatcherType.FORWARD,
-                                DispatcherType.INCLUDE)
+                                DispatcherType.INCLUDE, DispatcherType.ASYNC)
                         .permitAll()
 
-                        .requestMatchers("/", "/login", "/product/**", "/register", "/products/**",
-                                "/client/**", "/css/**", "/js/**", "/images/**")
+                        .requestMatchers("/", "/login", "/product/**", "/register", "/products/**")
                         .permitAll()
 
+                        .requestMatchers(HttpMethod.GET, "/api/v1/products/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/chat").permitAll()
+
                         .requestMatchers("/admin/**").hasRole("ADMIN")
 
                         .anyRequest().authenticated())
 
+                // chỉ tạo session khi cần (đăng nhập, lưu request trước khi bắt login)
+                // khách vãng lai xem sản phẩm không sinh ra dòng SPRING_SESSION nào
                 .sessionManagement((sessionManagement) -> sessionManagement
-                        .sessionCreationPolicy(SessionCreationPolicy.ALWAYS) // if user don't have session we will
-                                                                             // create
+                        .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
                         .invalidSessionUrl("/logout?expired")
                         .maximumSessions(1) // Only one account can be logged in at a time
                         .maxSessionsPreventsLogin(false)) // if second user login, it will kick first user out
 
+                // csrf token lưu trong cookie thay vì session, để form trên trang công khai không tạo session
+                .csrf(csrf -> csrf.csrfTokenRepository(new CookieCsrfTokenRepository()))
+
                 .logout(logout -> logout.deleteCookies("JSESSIONID").invalidateHttpSession(true))
 
                 .rememberMe(r -> r.rememberMeServices(rememberMeServices()))
@@ -104,7 +213,11 @@ public class SecurityConfiguration {
                         .failureUrl("/login?error")
                         .successHandler(customSuccessHandler())
                         .permitAll())
-                .exceptionHandling(ex -> ex.accessDeniedPage("/access-deny"));
+                .exceptionHandling(ex -> ex
+                        .accessDeniedPage("/access-deny")
+                        // API trả 401 thay vì redirect về trang login
+                        .defaultAuthenticationEntryPointFor(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                                new AntPathRequestMatcher("/api/**")));
 
         return http.build();
     }
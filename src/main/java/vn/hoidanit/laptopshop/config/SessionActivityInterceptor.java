@@ -0,0 +1,30 @@
+package vn.hoidanit.laptopshop.config;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import vn.hoidanit.laptopshop.service.LiveMetricsService;
+
+/*
+ * ghi nhận session đang hoạt động cho dashboard realtime
+ * (chỉ đọc session có sẵn, không tạo session mới)
+ */
+public class SessionActivityInterceptor implements HandlerInterceptor {
+
+    private final LiveMetricsService liveMetricsService;
+
+    public SessionActivityInterceptor(LiveMetricsService liveMetricsService) {
+        this.liveMetricsService = liveMetricsService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            this.liveMetricsService.recordSessionActivity(session.getId());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package vn.hoidanit.laptopshop.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+
+import vn.hoidanit.laptopshop.service.session.NearCacheSessionRepository;
+import vn.hoidanit.laptopshop.service.session.SessionVersionStore;
+
+/*
+ * bọc JdbcIndexedSessionRepository (do spring boot tự tạo) bằng NearCacheSessionRepository
+ * không khai báo thêm 1 bean SessionRepository vì spring boot sẽ bỏ luôn cấu hình JDBC
+ * (@ConditionalOnMissingBean(SessionRepository.class)), nên dùng BeanPostProcessor để thay instance
+ */
+@Configuration
+@ConditionalOnProperty(name = "laptopshop.session.near-cache.enabled", havingValue = "true")
+public class SessionNearCacheConfig {
+
+    @Bean
+    public static DestructionAwareBeanPostProcessor sessionNearCachePostProcessor(
+            ObjectProvider<SessionVersionStore> versions, Environment env) {
+        return new DestructionAwareBeanPostProcessor() {
+            private NearCacheSessionRepository<?> nearCache;
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof JdbcIndexedSessionRepository jdbc) {
+                    this.nearCache = new NearCacheSessionRepository<>(jdbc, versions.getObject(),
+                            env.getProperty("laptopshop.session.near-cache.max-sessions", Integer.class, 10_000),
+                            env.getProperty("laptopshop.session.near-cache.flush-interval", Duration.class,
+                                    Duration.ofSeconds(5)),
+                            env.getProperty("laptopshop.session.near-cache.max-access-lag", Duration.class,
+                                    Duration.ofMinutes(1)));
+                    return this.nearCache;
+                }
+                return bean;
+            }
+
+            // ghi nốt các session chưa flush trước khi JDBC repository bị hủy
+            @Override
+            public void postProcessBeforeDestruction(Object bean, String beanName) throws BeansException {
+                if (bean instanceof JdbcIndexedSessionRepository && this.nearCache != null) {
+                    this.nearCache.shutdown();
+                }
+            }
+
+            @Override
+            public boolean requiresDestruction(Object bean) {
+                return bean instanceof JdbcIndexedSessionRepository;
+            }
+        };
+    }
+}
@@ -1,19 +1,45 @@
 package vn.hoidanit.laptopshop.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewResolverRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 import org.springframework.web.servlet.view.JstlView;
 
+import vn.hoidanit.laptopshop.service.LiveMetricsService;
+
 @Configuration
 @EnableWebMvc
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    private final LiveMetricsService liveMetricsService;
+    private final String precompressedLocation;
+    private final Duration unversionedMaxAge;
+
+    public WebMvcConfig(LiveMetricsService liveMetricsService,
+            @Value("${laptopshop.assets.precompressed-location:classpath:/static-assets/}") String precompressedLocation,
+            @Value("${laptopshop.assets.unversioned-max-age:PT10M}") Duration unversionedMaxAge) {
+        this.liveMetricsService = liveMetricsService;
+        this.precompressedLocation = precompressedLocation;
+        this.unversionedMaxAge = unversionedMaxAge;
+    }
+
     @Bean
     public ViewResolver viewResolver() {
         final InternalResourceViewResolver bean = new InternalResourceViewResolver();
@@ -28,11 +54,60 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry.viewResolver(viewResolver());
     }
 
+    /*
+     * css/js/client:
+     * - URL có fingerprint theo nội dung (styles-{md5}.css), JSP dùng <c:url> -> ResourceUrlEncodingFilter đổi URL
+     * - bản .gz nén sẵn lúc build (xem pom.xml, thư mục static-assets) được chọn theo Accept-Encoding
+     * - URL có fingerprint: cache 1 năm, immutable (nội dung đổi thì URL đổi), xem FingerprintCacheResolver
+     * - URL không có fingerprint: cache ngắn rồi hỏi lại bằng Last-Modified. Gồm cả url(...) trong css:
+     *   CssLinkResourceTransformer bỏ qua bản .gz nên ảnh trong css không được gắn version
+     */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/css/**").addResourceLocations("/resources/css/");
-        registry.addResourceHandler("/js/**").addResourceLocations("/resources/js/");
-        registry.addResourceHandler("/images/**").addResourceLocations("/resources/images/");
-        registry.addResourceHandler("/client/**").addResourceLocations("/resources/client/");
+        addAssetHandler(registry, "css");
+        addAssetHandler(registry, "js");
+        // /images/** do ImageController phục vụ (sendfile, Range, cache header)
+        addAssetHandler(registry, "client");
+    }
+
+    private void addAssetHandler(ResourceHandlerRegistry registry, String folder) {
+        List<String> locations = new ArrayList<>();
+        if (!this.precompressedLocation.isEmpty()) {
+            locations.add(this.precompressedLocation + folder + "/");
+        }
+        // chạy trực tiếp từ source (chưa build) thì vẫn có file gốc
+        locations.add("/resources/" + folder + "/");
+
+        registry.addResourceHandler("/" + folder + "/**")
+                .addResourceLocations(locations.toArray(new String[0]))
+                .setCacheControl(CacheControl.maxAge(this.unversionedMaxAge).cachePublic())
+                .resourceChain(true)
+                .addResolver(new FingerprintCacheResolver(
+                        CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()))
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+
+    /*
+     * ETag theo nội dung cho API JSON, client gửi If-None-Match thì nhận 304 không có body
+     * filter buffer cả body để hash: chỉ gắn cho các GET JSON nhỏ, không gắn cho /api/v1/chat (SSE)
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> apiEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(
+                new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/v1/products/*", "/api/v1/cart");
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SessionActivityInterceptor(this.liveMetricsService))
+                .excludePathPatterns("/css/**", "/js/**", "/images/**", "/client/**", "/admin/metrics/**");
     }
-}
\ No newline at end of file
+}
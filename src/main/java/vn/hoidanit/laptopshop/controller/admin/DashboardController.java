@@ -4,22 +4,26 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
-import vn.hoidanit.laptopshop.service.UserService;
+import vn.hoidanit.laptopshop.domain.dto.DashboardStatsDTO;
+import vn.hoidanit.laptopshop.service.DashboardStatsService;
 
 @Controller
 public class DashboardController {
 
-    private final UserService userService;
+    private final DashboardStatsService dashboardStatsService;
 
-    public DashboardController(UserService userService) {
-        this.userService = userService;
+    public DashboardController(DashboardStatsService dashboardStatsService) {
+        this.dashboardStatsService = dashboardStatsService;
     }
 
     @GetMapping("/admin")
     public String getDashboard(Model model) {
-        model.addAttribute("countUsers", this.userService.countUsers());
-        model.addAttribute("countProducts", this.userService.countProducts());
-        model.addAttribute("countOrders", this.userService.countOrders());
+        DashboardStatsDTO stats = this.dashboardStatsService.getStats();
+        model.addAttribute("countUsers", stats.getCountUsers());
+        model.addAttribute("countProducts", stats.getCountProducts());
+        model.addAttribute("countOrders", stats.getCountOrders());
+        model.addAttribute("revenue", stats.getRevenue());
+        model.addAttribute("countOrdersByStatus", stats.getCountOrdersByStatus());
         return "admin/dashboard/show";
     }
-}
\ No newline at end of file
+}
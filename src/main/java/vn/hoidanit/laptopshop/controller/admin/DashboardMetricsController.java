@@ -0,0 +1,35 @@
+package vn.hoidanit.laptopshop.controller.admin;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import vn.hoidanit.laptopshop.domain.dto.SessionReaperStatsDTO;
+import vn.hoidanit.laptopshop.service.LiveMetricsService;
+import vn.hoidanit.laptopshop.service.session.SessionReaperService;
+
+@Controller
+public class DashboardMetricsController {
+
+    private final LiveMetricsService liveMetricsService;
+    private final SessionReaperService sessionReaperService;
+
+    public DashboardMetricsController(LiveMetricsService liveMetricsService,
+            SessionReaperService sessionReaperService) {
+        this.liveMetricsService = liveMetricsService;
+        this.sessionReaperService = sessionReaperService;
+    }
+
+    @GetMapping(value = "/admin/metrics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMetrics() {
+        return this.liveMetricsService.subscribe();
+    }
+
+    @GetMapping("/admin/metrics/session-reaper")
+    @ResponseBody
+    public SessionReaperStatsDTO getSessionReaperStats() {
+        return this.sessionReaperService.getStats();
+    }
+}
@@ -3,9 +3,7 @@ package vn.hoidanit.laptopshop.controller.admin;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,8 +11,12 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletRequest;
 import vn.hoidanit.laptopshop.domain.Order;
+import vn.hoidanit.laptopshop.domain.dto.BulkOrderResultDTO;
+import vn.hoidanit.laptopshop.domain.dto.OrderCriteriaDTO;
 import vn.hoidanit.laptopshop.service.OrderService;
 
 @Controller
@@ -29,29 +31,58 @@ public class OrderController {
 
     @GetMapping("/admin/order")
     public String getDashboard(Model model,
-            @RequestParam("page") Optional<String> pageOptional) {
-                
-        int page = 1;
-        try {
-            if (pageOptional.isPresent()) {
-                // convert from String to int
-                page = Integer.parseInt(pageOptional.get());
-            } else {
-                // page = 1
-            }
-        } catch (Exception e) {
-            // page = 1
-            // TODO: handle exception
+            OrderCriteriaDTO orderCriteriaDTO,
+            HttpServletRequest request) {
+
+        Slice<Order> ordersSlice = this.orderService.fetchOrdersWithSpec(orderCriteriaDTO, LIMIT_ORDER_PER_PAGE);
+        List<Order> orders = ordersSlice.getContent();
+
+        String qs = request.getQueryString();
+        if (qs != null && !qs.isBlank()) {
+            // remove cursor
+            qs = qs.replaceAll("(^|&)cursor=[^&]*", "");
+            qs = qs.isEmpty() ? "" : "&" + qs.replaceFirst("^&", "");
+        } else {
+            qs = "";
         }
-        Pageable pageable = PageRequest.of(page - 1, LIMIT_ORDER_PER_PAGE);
-        Page<Order> ordersPage = this.orderService.fetchAllOrders(pageable);
-        List<Order> orders = ordersPage.getContent();
+
         model.addAttribute("orders", orders);
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", ordersPage.getTotalPages());
+        model.addAttribute("isFirstPage", request.getParameter("cursor") == null);
+        if (ordersSlice.hasNext()) {
+            model.addAttribute("nextCursor", orders.get(orders.size() - 1).getId());
+        }
+        model.addAttribute("queryString", qs);
         return "admin/order/show";
     }
 
+    @PostMapping("/admin/order/bulk")
+    public String handleBulkOrders(
+            @RequestParam(value = "ids", required = false) List<Long> ids,
+            @RequestParam("action") String action,
+            @RequestParam(value = "status", required = false) String status,
+            RedirectAttributes redirectAttributes) {
+        if (ids == null || ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute("bulkMessage", "Chưa chọn order nào");
+            return "redirect:/admin/order";
+        }
+
+        if ("delete".equals(action)) {
+            BulkOrderResultDTO result = this.orderService.deleteOrdersByIds(ids);
+            redirectAttributes.addFlashAttribute("bulkMessage",
+                    "Đã xóa " + result.getOrders() + " order, " + result.getOrderDetails() + " order detail");
+        } else if ("status".equals(action)) {
+            // Set.of(...).contains(null) ném NullPointerException
+            if (status == null || !Order.STATUSES.contains(status)) {
+                redirectAttributes.addFlashAttribute("bulkMessage", "Status không hợp lệ");
+                return "redirect:/admin/order";
+            }
+            int updated = this.orderService.updateOrdersStatus(ids, status);
+            redirectAttributes.addFlashAttribute("bulkMessage",
+                    "Đã cập nhật status " + status + " cho " + updated + " order");
+        }
+        return "redirect:/admin/order";
+    }
+
     @GetMapping("/admin/order/{id}")
     public String getOrderDetailPage(Model model, @PathVariable long id) {
         Order order = this.orderService.fetchOrderById(id).get();
@@ -69,8 +100,12 @@ public class OrderController {
     }
 
     @PostMapping("/admin/order/delete")
-    public String postDeleteOrder(@ModelAttribute("newOrder") Order order) {
-        this.orderService.deleteOrderById(order.getId());
+    public String postDeleteOrder(@ModelAttribute("newOrder") Order order, RedirectAttributes redirectAttributes) {
+        try {
+            this.orderService.deleteOrderById(order.getId());
+        } catch (IllegalStateException e) {
+            redirectAttributes.addFlashAttribute("bulkMessage", "Order đã được lưu trữ, không thể xóa");
+        }
         return "redirect:/admin/order";
     }
 
@@ -20,19 +20,23 @@ import jakarta.validation.Valid;
 import vn.hoidanit.laptopshop.domain.Product;
 import vn.hoidanit.laptopshop.service.ProductService;
 import vn.hoidanit.laptopshop.service.UploadService;
+import vn.hoidanit.laptopshop.service.image.ImageVariantService;
 
 @Controller
 public class ProductController {
 
     private final UploadService uploadService;
     private final ProductService productService;
+    private final ImageVariantService imageVariantService;
     private final int LIMIT_PRODUCT_PER_PAGE = 4;
 
     public ProductController(
             UploadService uploadService,
-            ProductService productService) {
+            ProductService productService,
+            ImageVariantService imageVariantService) {
         this.uploadService = uploadService;
         this.productService = productService;
+        this.imageVariantService = imageVariantService;
     }
 
     @GetMapping("/admin/product")
@@ -83,8 +87,11 @@ public class ProductController {
         // upload image
         String image = this.uploadService.handleSaveUploadFile(file, "product");
         pr.setImage(image);
+        pr.setImageWidths(null);
+        pr.setImageSourceWidth(null);
 
         this.productService.createProduct(pr);
+        this.imageVariantService.attachToProducts(image);
 
         return "redirect:/admin/product";
     }
@@ -109,9 +116,15 @@ public class ProductController {
         Product currentProduct = this.productService.fetchProductById(pr.getId()).get();
         if (currentProduct != null) {
             // update new image
+            boolean imageChanged = false;
             if (!file.isEmpty()) {
                 String img = this.uploadService.handleSaveUploadFile(file, "product");
+                imageChanged = !img.equals(currentProduct.getImage());
                 currentProduct.setImage(img);
+                if (imageChanged) {
+                    currentProduct.setImageWidths(null);
+                    currentProduct.setImageSourceWidth(null);
+                }
             }
 
             currentProduct.setName(pr.getName());
@@ -123,6 +136,9 @@ public class ProductController {
             currentProduct.setTarget(pr.getTarget());
 
             this.productService.createProduct(currentProduct);
+            if (imageChanged) {
+                this.imageVariantService.attachToProducts(currentProduct.getImage());
+            }
         }
 
         return "redirect:/admin/product";
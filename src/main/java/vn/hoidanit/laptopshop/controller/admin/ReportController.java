@@ -0,0 +1,88 @@
+package vn.hoidanit.laptopshop.controller.admin;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import vn.hoidanit.laptopshop.domain.SalesDaily;
+import vn.hoidanit.laptopshop.domain.dto.SalesReportRowDTO;
+import vn.hoidanit.laptopshop.service.SalesReportService;
+
+@Controller
+public class ReportController {
+
+    private final SalesReportService salesReportService;
+    private final int DEFAULT_REPORT_DAYS = 30;
+
+    public ReportController(SalesReportService salesReportService) {
+        this.salesReportService = salesReportService;
+    }
+
+    @GetMapping("/admin/report")
+    public String getReportPage(Model model,
+            @RequestParam("dimension") Optional<String> dimensionOptional,
+            @RequestParam("from") Optional<String> fromOptional,
+            @RequestParam("to") Optional<String> toOptional) {
+
+        model.addAllAttributes(this.buildReport(dimensionOptional, fromOptional, toOptional));
+        return "admin/report/show";
+    }
+
+    // cùng dữ liệu với trang report, dạng JSON
+    @GetMapping("/admin/report/data")
+    @ResponseBody
+    public Map<String, Object> getReportData(
+            @RequestParam("dimension") Optional<String> dimensionOptional,
+            @RequestParam("from") Optional<String> fromOptional,
+            @RequestParam("to") Optional<String> toOptional) {
+        return this.buildReport(dimensionOptional, fromOptional, toOptional);
+    }
+
+    private Map<String, Object> buildReport(Optional<String> dimensionOptional,
+            Optional<String> fromOptional, Optional<String> toOptional) {
+        String dimension = dimensionOptional
+                .filter(SalesReportService::isValidDimension)
+                .orElse(SalesDaily.DIMENSION_PRODUCT);
+
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(DEFAULT_REPORT_DAYS - 1);
+        try {
+            if (toOptional.isPresent() && !toOptional.get().isBlank()) {
+                to = LocalDate.parse(toOptional.get());
+            }
+            if (fromOptional.isPresent() && !fromOptional.get().isBlank()) {
+                from = LocalDate.parse(fromOptional.get());
+            }
+        } catch (Exception e) {
+            // giữ khoảng ngày mặc định
+        }
+
+        List<SalesReportRowDTO> totals = this.salesReportService.fetchTotalsByDimension(dimension, from, to);
+        List<SalesReportRowDTO> daily = this.salesReportService.fetchTotalsByDay(from, to);
+
+        double revenue = 0;
+        long quantity = 0;
+        for (SalesReportRowDTO row : daily) {
+            revenue += row.getRevenue();
+            quantity += row.getQuantity();
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("dimension", dimension);
+        report.put("from", from.toString());
+        report.put("to", to.toString());
+        report.put("totalRevenue", revenue);
+        report.put("totalQuantity", quantity);
+        report.put("totals", totals);
+        report.put("daily", daily);
+        return report;
+    }
+}
@@ -1,19 +1,17 @@
 package vn.hoidanit.laptopshop.controller.admin;
 
-import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import vn.hoidanit.laptopshop.config.PasswordEncoderBusyException;
 import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.domain.dto.UserSearchResultDTO;
 import vn.hoidanit.laptopshop.service.UploadService;
 import vn.hoidanit.laptopshop.service.UserService;
 
@@ -54,25 +52,16 @@ public class UserController {
 
     @RequestMapping("/admin/user")
     public String getUserPage(Model model,
-            @RequestParam("page") Optional<String> pageOptional) {
-        int page = 1;
-        try {
-            if (pageOptional.isPresent()) {
-                // convert from String to int
-                page = Integer.parseInt(pageOptional.get());
-            } else {
-                // page = 1
-            }
-        } catch (Exception e) {
-            // page = 1
-            // TODO: handle exception
-        }
-        Pageable pageable = PageRequest.of(page - 1, LIMIT_USER_PER_PAGE);
-        Page<User> usersPage = this.userService.getUsers(pageable);
-        List<User> users = usersPage.getContent();
-        model.addAttribute("users1", users);
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", usersPage.getTotalPages());
+            @RequestParam("q") Optional<String> keywordOptional,
+            @RequestParam("cursor") Optional<Long> cursorOptional) {
+        String keyword = keywordOptional.orElse("");
+        UserSearchResultDTO result = this.userService.searchUsers(
+                keyword, cursorOptional.orElse(null), LIMIT_USER_PER_PAGE);
+
+        model.addAttribute("users1", result.getUsers());
+        model.addAttribute("q", keyword);
+        model.addAttribute("isFirstPage", cursorOptional.isEmpty());
+        model.addAttribute("nextCursor", result.getNextCursor());
         return "admin/user/show";
     }
 
@@ -107,15 +96,26 @@ public class UserController {
             return "admin/user/create";
         }
 
-        //
+        // hash trước khi lưu avatar: pool hash bận thì trả form về, không để lại file thừa
+        String hashPassword;
+        try {
+            hashPassword = this.passwordEncoder.encode(hoidanit.getPassword());
+        } catch (PasswordEncoderBusyException e) {
+            newUserBindingResult.rejectValue("password", "busy", "Hệ thống đang bận, vui lòng thử lại sau");
+            return "admin/user/create";
+        }
         String avatar = this.uploadService.handleSaveUploadFile(file, "avatar");
-        String hashPassword = this.passwordEncoder.encode(hoidanit.getPassword());
 
         hoidanit.setAvatar(avatar);
         hoidanit.setPassword(hashPassword);
         hoidanit.setRole(this.userService.getRoleByName(hoidanit.getRole().getName()));
         // save
-        this.userService.handleSaveUser(hoidanit);
+        try {
+            this.userService.handleSaveUser(hoidanit);
+        } catch (DuplicateKeyException e) {
+            newUserBindingResult.rejectValue("email", "duplicate", "Email đã tồn tại");
+            return "admin/user/create";
+        }
         return "redirect:/admin/user";
     }
 
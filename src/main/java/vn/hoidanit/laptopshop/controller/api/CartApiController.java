@@ -0,0 +1,59 @@
+package vn.hoidanit.laptopshop.controller.api;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.domain.dto.CartApiDTO;
+import vn.hoidanit.laptopshop.domain.dto.CartItemStateDTO;
+import vn.hoidanit.laptopshop.service.ProductService;
+import vn.hoidanit.laptopshop.service.UserPrincipal;
+
+/*
+ * giỏ hàng của user đang đăng nhập, dạng JSON
+ * private + no-cache: client luôn hỏi lại, nhưng nhận 304 nếu ETag không đổi
+ */
+@RestController
+@RequestMapping("/api/v1/cart")
+public class CartApiController {
+
+    private final ProductService productService;
+
+    public CartApiController(ProductService productService) {
+        this.productService = productService;
+    }
+
+    @GetMapping
+    public ResponseEntity<CartApiDTO> getCart(@AuthenticationPrincipal UserPrincipal principal) {
+        User currentUser = new User();
+        currentUser.setId(principal.getId());
+        CartApiDTO cart = new CartApiDTO(this.productService.fetchCartViewByUser(currentUser));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(cart);
+    }
+
+    // thêm vào giỏ không reload trang: chỉ trả badge + số lượng của dòng vừa thêm
+    @PostMapping("/items")
+    public CartItemStateDTO addItem(@AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam("productId") long productId,
+            @RequestParam(value = "quantity", defaultValue = "1") long quantity,
+            HttpServletRequest request) {
+        if (quantity < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "quantity must be >= 1");
+        }
+        CartItemStateDTO state = this.productService.addProductToCart(principal.getId(), principal.getEmail(),
+                productId, quantity, request.getSession());
+        if (state == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return state;
+    }
+}
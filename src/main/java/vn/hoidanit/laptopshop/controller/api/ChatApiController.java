@@ -0,0 +1,32 @@
+package vn.hoidanit.laptopshop.controller.api;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.validation.Valid;
+import vn.hoidanit.laptopshop.domain.dto.ChatRequestDTO;
+import vn.hoidanit.laptopshop.service.chat.ChatGatewayService;
+
+/*
+ * chatbot qua server (thay cho trình duyệt gọi thẳng localhost:8000)
+ * trả text/event-stream, xem ChatGatewayService
+ */
+@RestController
+@RequestMapping("/api/v1/chat")
+public class ChatApiController {
+
+    private final ChatGatewayService chatGatewayService;
+
+    public ChatApiController(ChatGatewayService chatGatewayService) {
+        this.chatGatewayService = chatGatewayService;
+    }
+
+    @PostMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter ask(@RequestBody @Valid ChatRequestDTO chatRequestDTO) {
+        return this.chatGatewayService.ask(chatRequestDTO.getQuery().trim(), chatRequestDTO.getHistory());
+    }
+}
@@ -0,0 +1,133 @@
+package vn.hoidanit.laptopshop.controller.api;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.dto.ProductApiDTO;
+import vn.hoidanit.laptopshop.domain.dto.ProductApiPageDTO;
+import vn.hoidanit.laptopshop.domain.dto.ProductCriteriaDTO;
+import vn.hoidanit.laptopshop.domain.dto.ProductPageDTO;
+import vn.hoidanit.laptopshop.domain.dto.ProductSummaryDTO;
+import vn.hoidanit.laptopshop.service.ProductService;
+
+/*
+ * API JSON cho catalog (mobile, SPA)
+ * - fields=id,name,price: chỉ ghi các field được yêu cầu (sparse fieldset, qua @JsonFilter của ProductApiDTO)
+ * - phân trang keyset qua cursor/nextCursor, size tối đa MAX_SIZE
+ * - ETag do ShallowEtagHeaderFilter tính trên body đã buffer (xem WebMvcConfig), body nhỏ nhờ size/fields
+ */
+@RestController
+@RequestMapping("/api/v1/products")
+public class ProductApiController {
+
+    static final int DEFAULT_SIZE = 20;
+    static final int MAX_SIZE = 50;
+    private static final Set<String> ALL_FIELDS = Set.of("id", "name", "price", "image", "thumbnail",
+            "shortDesc", "detailDesc", "factory", "target", "quantity", "sold");
+    private static final Set<String> LIST_FIELDS = new LinkedHashSet<>(
+            List.of("id", "name", "price", "thumbnail", "shortDesc"));
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic();
+
+    private final ProductService productService;
+
+    public ProductApiController(ProductService productService) {
+        this.productService = productService;
+    }
+
+    @GetMapping
+    public ResponseEntity<MappingJacksonValue> getProducts(ProductCriteriaDTO productCriteriaDTO,
+            @RequestParam("cursor") Optional<String> cursor,
+            @RequestParam(value = "size", defaultValue = "" + DEFAULT_SIZE) int size,
+            @RequestParam("fields") Optional<String> fields) {
+        Set<String> selected = parseFields(fields, LIST_FIELDS);
+        if (selected.contains("detailDesc")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "detailDesc is only available on /products/{id}");
+        }
+
+        ProductPageDTO page;
+        try {
+            page = this.productService.fetchProductPage(productCriteriaDTO, cursor.orElse(null),
+                    Math.max(1, Math.min(size, MAX_SIZE)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+
+        List<ProductApiDTO> data = new ArrayList<>(page.getProducts().size());
+        for (ProductSummaryDTO product : page.getProducts()) {
+            data.add(toApi(product, null));
+        }
+        return filtered(new ProductApiPageDTO(data, page.getNextCursor()), selected);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<MappingJacksonValue> getProduct(@PathVariable long id,
+            @RequestParam("fields") Optional<String> fields) {
+        Set<String> selected = parseFields(fields, ALL_FIELDS);
+        Product product = this.productService.fetchProductById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        return filtered(toApi(ProductService.toSummary(product), product.getDetailDesc()), selected);
+    }
+
+    private static ResponseEntity<MappingJacksonValue> filtered(Object body, Set<String> fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(ProductApiDTO.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(value);
+    }
+
+    private static ProductApiDTO toApi(ProductSummaryDTO product, String detailDesc) {
+        return new ProductApiDTO(product, imageUrl(product.getImage()), thumbnailUrl(product), detailDesc);
+    }
+
+    private static Set<String> parseFields(Optional<String> fields, Set<String> defaults) {
+        if (fields.isEmpty() || fields.get().isBlank()) {
+            return defaults;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : Arrays.asList(fields.get().split(","))) {
+            String name = field.trim();
+            if (!ALL_FIELDS.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    private static String imageUrl(String image) {
+        return image == null || image.isEmpty() ? null : "/images/product/" + image;
+    }
+
+    // variant nhỏ nhất (xem ImageVariantService), chưa có thì dùng ảnh gốc
+    private static String thumbnailUrl(ProductSummaryDTO product) {
+        String widths = product.getImageWidths();
+        if (widths == null || widths.isEmpty()) {
+            return imageUrl(product.getImage());
+        }
+        int comma = widths.indexOf(',');
+        String smallest = comma < 0 ? widths : widths.substring(0, comma);
+        return "/images/product/" + product.getImage() + "." + smallest + "w.jpg";
+    }
+}
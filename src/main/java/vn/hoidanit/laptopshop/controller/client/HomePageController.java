@@ -1,10 +1,13 @@
 package vn.hoidanit.laptopshop.controller.client;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -12,13 +15,15 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
-import vn.hoidanit.laptopshop.domain.Order;
+import vn.hoidanit.laptopshop.config.PasswordEncoderBusyException;
 import vn.hoidanit.laptopshop.domain.Product;
 import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.domain.dto.OrderHistoryDTO;
 import vn.hoidanit.laptopshop.domain.dto.RegisterDTO;
 import vn.hoidanit.laptopshop.service.OrderService;
 import vn.hoidanit.laptopshop.service.ProductService;
@@ -32,6 +37,7 @@ public class HomePageController {
     private final PasswordEncoder passwordEncoder;
     private final OrderService orderService;
     private final int LIMIT_PRODUCT_PER_PAGE = 10;
+    private final int LIMIT_ORDER_PER_PAGE = 5;
 
     public HomePageController(
             ProductService productService,
@@ -72,12 +78,24 @@ public class HomePageController {
 
         User user = this.userService.registerDTOtoUser(registerDTO);
 
-        String hashPassword = this.passwordEncoder.encode(user.getPassword());
+        String hashPassword;
+        try {
+            hashPassword = this.passwordEncoder.encode(user.getPassword());
+        } catch (PasswordEncoderBusyException e) {
+            // lỗi của confirmPassword được hiện ngay dưới ô password
+            bindingResult.rejectValue("confirmPassword", "busy", "Hệ thống đang bận, vui lòng thử lại sau");
+            return "client/auth/register";
+        }
 
         user.setPassword(hashPassword);
         user.setRole(this.userService.getRoleByName("USER"));
         // save
-        this.userService.handleSaveUser(user);
+        try {
+            this.userService.handleSaveUser(user);
+        } catch (DuplicateKeyException e) {
+            bindingResult.rejectValue("email", "duplicate", "Email đã tồn tại");
+            return "client/auth/register";
+        }
         return "redirect:/login";
 
     }
@@ -95,14 +113,20 @@ public class HomePageController {
     }
 
     @GetMapping("/order-history")
-    public String getOrderHistoryPage(Model model, HttpServletRequest request) {
-        User currentUser = new User();// null
+    public String getOrderHistoryPage(Model model, HttpServletRequest request,
+            @RequestParam("cursor") Optional<Long> cursorOptional) {
         HttpSession session = request.getSession(false);
         long id = (long) session.getAttribute("id");
-        currentUser.setId(id);
 
-        List<Order> orders = this.orderService.fetchOrderByUser(currentUser);
-        model.addAttribute("orders", orders);
+        Slice<OrderHistoryDTO> orders = this.orderService.fetchOrderHistory(
+                id, cursorOptional.orElse(null), LIMIT_ORDER_PER_PAGE);
+        List<OrderHistoryDTO> content = orders.getContent();
+
+        model.addAttribute("orders", content);
+        model.addAttribute("isFirstPage", cursorOptional.isEmpty());
+        if (orders.hasNext()) {
+            model.addAttribute("nextCursor", content.get(content.size() - 1).getId());
+        }
 
         return "client/cart/order-history";
     }
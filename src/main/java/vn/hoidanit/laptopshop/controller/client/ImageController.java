@@ -0,0 +1,152 @@
+package vn.hoidanit.laptopshop.controller.client;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import vn.hoidanit.laptopshop.service.image.ImageFileService;
+import vn.hoidanit.laptopshop.service.image.ImageFileService.OpenImage;
+
+/*
+ * phục vụ /images/** thay cho resource handler mặc định
+ * - ETag / Last-Modified, 304 cho request có điều kiện
+ * - Range 1 đoạn (206 / 416), If-Range
+ * - tên content-addressed (sha256) không bao giờ đổi nội dung -> cache 1 năm, immutable
+ * - file lớn: giao cho Tomcat sendfile (FileChannel.transferTo thẳng ra socket),
+ *   file nhỏ: transferTo từ FileChannel đã cache sẵn
+ */
+@Controller
+public class ImageController {
+
+    private static final String PREFIX = "/images/";
+    // {folder}/ab/cd/{sha256}.{ext}[.{width}w.jpg]
+    private static final Pattern CONTENT_ADDRESSED = Pattern
+            .compile("[a-z0-9_-]+/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}(\\.[a-z0-9]+)*");
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageFileService imageFileService;
+    private final long sendfileThreshold;
+    private final String legacyCacheControl;
+
+    public ImageController(ImageFileService imageFileService,
+            @Value("${laptopshop.image.sendfile-threshold:48KB}") DataSize sendfileThreshold,
+            @Value("${laptopshop.image.legacy-max-age:PT24H}") Duration legacyMaxAge) {
+        this.imageFileService = imageFileService;
+        this.sendfileThreshold = sendfileThreshold.toBytes();
+        this.legacyCacheControl = "public, max-age=" + legacyMaxAge.toSeconds();
+    }
+
+    @GetMapping("/images/**")
+    public void serveImage(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String relative = path != null && path.startsWith(PREFIX) ? path.substring(PREFIX.length()) : null;
+
+        try (OpenImage image = this.imageFileService.open(relative)) {
+            if (image == null) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+
+            long size = image.getSize();
+            long lastModified = image.getLastModified();
+            String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CONTENT_ADDRESSED.matcher(relative).matches()
+                    ? "public, max-age=31536000, immutable"
+                    : this.legacyCacheControl);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+                return;
+            }
+
+            long start = 0;
+            long end = size - 1;
+            String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+            if (rangeHeader != null && size > 0 && ifRangeMatches(request, etag, lastModified)) {
+                List<HttpRange> ranges;
+                try {
+                    ranges = HttpRange.parseRanges(rangeHeader);
+                } catch (IllegalArgumentException e) {
+                    ranges = List.of();
+                }
+                // nhiều đoạn (multipart/byteranges) thì trả cả file, client vẫn hợp lệ
+                if (ranges.size() == 1) {
+                    HttpRange range = ranges.get(0);
+                    start = range.getRangeStart(size);
+                    end = Math.min(range.getRangeEnd(size), size - 1);
+                    if (start >= size || start > end) {
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                        return;
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+                }
+            }
+
+            long length = end - start + 1;
+            response.setContentType(MediaTypeFactory.getMediaType(relative)
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+            response.setContentLengthLong(length);
+            if (HttpMethod.HEAD.matches(request.getMethod()) || length <= 0) {
+                return;
+            }
+
+            if (length >= this.sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, image.getPath().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+
+            FileChannel channel = image.getChannel();
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long limit = end + 1;
+            while (position < limit) {
+                long sent = channel.transferTo(position, limit - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
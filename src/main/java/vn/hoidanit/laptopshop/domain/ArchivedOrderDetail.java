@@ -0,0 +1,68 @@
+package vn.hoidanit.laptopshop.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "order_detail_archive")
+public class ArchivedOrderDetail {
+    @Id
+    private long id;
+
+    private long quantity;
+    private double price;
+
+    // order_id: long
+    @ManyToOne
+    @JoinColumn(name = "order_id")
+    private ArchivedOrder order;
+
+    // product_id: long
+    @ManyToOne
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public ArchivedOrder getOrder() {
+        return order;
+    }
+
+    public void setOrder(ArchivedOrder order) {
+        this.order = order;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+
+}
@@ -1,19 +1,44 @@
 package vn.hoidanit.laptopshop.domain;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import vn.hoidanit.laptopshop.service.listener.DashboardStatsListener;
 
 @Entity
-@Table(name = "orders")
+@EntityListeners(DashboardStatsListener.class)
+@Table(name = "orders", indexes = {
+        // admin lọc theo status, phân trang keyset theo id
+        @Index(name = "idx_orders_status_id", columnList = "status, id"),
+        @Index(name = "idx_orders_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_orders_created_at", columnList = "created_at"),
+        @Index(name = "idx_orders_total_price", columnList = "total_price"),
+        // lịch sử mua hàng của user, phân trang keyset theo id
+        @Index(name = "idx_orders_user_id_id", columnList = "user_id, id")
+})
 public class Order {
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SHIPPING = "SHIPPING";
+    public static final String STATUS_COMPLETE = "COMPLETE";
+    public static final String STATUS_CANCEL = "CANCEL";
+    public static final Set<String> STATUSES = Set.of(STATUS_PENDING, STATUS_SHIPPING, STATUS_COMPLETE,
+            STATUS_CANCEL);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -28,6 +53,12 @@ public class Order {
 
     private String status;
 
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     // user id
     @ManyToOne
     @JoinColumn(name = "user_id")
@@ -36,6 +67,14 @@ public class Order {
     @OneToMany(mappedBy = "order")
     private List<OrderDetail> orderDetails;
 
+    // status lúc load từ DB, dùng để tính thống kê khi status thay đổi
+    @Transient
+    private String loadedStatus;
+
+    // true nếu order được đọc từ bảng orders_archive (chỉ xem, không sửa)
+    @Transient
+    private boolean archived;
+
     public long getId() {
         return id;
     }
@@ -84,6 +123,33 @@ public class Order {
         this.status = status;
     }
 
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    public void handleBeforeCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    public void handleBeforeUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     public User getUser() {
         return user;
     }
@@ -100,6 +166,22 @@ public class Order {
         this.orderDetails = orderDetails;
     }
 
+    public String getLoadedStatus() {
+        return loadedStatus;
+    }
+
+    public void setLoadedStatus(String loadedStatus) {
+        this.loadedStatus = loadedStatus;
+    }
+
+    public boolean isArchived() {
+        return archived;
+    }
+
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+
     @Override
     public String toString() {
         return "Order [id=" + id + ", totalPrice=" + totalPrice + "]";
@@ -2,6 +2,7 @@ package vn.hoidanit.laptopshop.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -11,8 +12,10 @@ import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import vn.hoidanit.laptopshop.service.listener.DashboardStatsListener;
 
 @Entity
+@EntityListeners(DashboardStatsListener.class)
 @Table(name = "products")
 public class Product {
     @Id
@@ -29,6 +32,14 @@ public class Product {
 
     private String image;
 
+    // các width variant đã sinh, vd "240,480,960" (xem ImageVariantService)
+    @Column(name = "image_widths", length = 64)
+    private String imageWidths;
+
+    // width thật của ảnh gốc, là ứng viên cuối của srcset (0 = không đọc được ảnh)
+    @Column(name = "image_source_width")
+    private Integer imageSourceWidth;
+
     @Lob
     @Column(name = "detail_desc", length = 512)
     @NotNull
@@ -78,6 +89,22 @@ public class Product {
         this.image = image;
     }
 
+    public String getImageWidths() {
+        return imageWidths;
+    }
+
+    public void setImageWidths(String imageWidths) {
+        this.imageWidths = imageWidths;
+    }
+
+    public Integer getImageSourceWidth() {
+        return imageSourceWidth;
+    }
+
+    public void setImageSourceWidth(Integer imageSourceWidth) {
+        this.imageSourceWidth = imageSourceWidth;
+    }
+
     public String getDetailDesc() {
         return detailDesc;
     }
@@ -0,0 +1,34 @@
+package vn.hoidanit.laptopshop.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/*
+ * id lớn nhất đã được tổng hợp cho mỗi job rollup
+ */
+@Entity
+@Table(name = "rollup_watermark")
+public class RollupWatermark {
+    @Id
+    private String name;
+
+    private long lastId;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(long lastId) {
+        this.lastId = lastId;
+    }
+
+}
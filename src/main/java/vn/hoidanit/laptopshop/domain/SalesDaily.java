@@ -0,0 +1,102 @@
+package vn.hoidanit.laptopshop.domain;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/*
+ * bảng tổng hợp doanh số theo ngày
+ * dimension = PRODUCT (key = product id) | FACTORY | TARGET
+ * được cộng dồn bởi SalesRollupService, báo cáo chỉ đọc từ bảng này
+ */
+@Entity
+@Table(name = "sales_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sales_daily_dimension_day_key", columnNames = { "dimension", "day",
+                "dimension_key" })
+})
+public class SalesDaily {
+    public static final String DIMENSION_PRODUCT = "PRODUCT";
+    public static final String DIMENSION_FACTORY = "FACTORY";
+    public static final String DIMENSION_TARGET = "TARGET";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(length = 16)
+    private String dimension;
+
+    private LocalDate day;
+
+    @Column(name = "dimension_key", length = 191)
+    private String dimensionKey;
+
+    private long quantity;
+
+    private double revenue;
+
+    private long orderLines;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(String dimension) {
+        this.dimension = dimension;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public String getDimensionKey() {
+        return dimensionKey;
+    }
+
+    public void setDimensionKey(String dimensionKey) {
+        this.dimensionKey = dimensionKey;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getOrderLines() {
+        return orderLines;
+    }
+
+    public void setOrderLines(long orderLines) {
+        this.orderLines = orderLines;
+    }
+
+}
@@ -0,0 +1,66 @@
+package vn.hoidanit.laptopshop.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/*
+ * version của từng session, tăng mỗi lần 1 node ghi session xuống DB
+ * các node khác so sánh với version đang cache để biết session đã bị sửa ở nơi khác
+ */
+@Entity
+@Table(name = "spring_session_version", indexes = {
+        @Index(name = "idx_spring_session_version_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_spring_session_version_expires_at", columnList = "expires_at")
+})
+public class SessionVersion {
+    @Id
+    @Column(name = "session_id", length = 36)
+    private String sessionId;
+
+    private long version;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // hạn của session ở lần ghi cuối, dùng để purge
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+}
@@ -3,9 +3,11 @@ package vn.hoidanit.laptopshop.domain;
 import java.util.List;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -14,10 +16,19 @@ import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.NotNull;
+import vn.hoidanit.laptopshop.service.listener.DashboardStatsListener;
 
 @Entity
-@Table(name = "users")
+@EntityListeners(DashboardStatsListener.class)
+@Table(name = "users", indexes = {
+        // unique: chặn đăng ký trùng kể cả khi bloom filter / check trước đó trả lời sai
+        @Index(name = User.EMAIL_UNIQUE_INDEX, columnList = "email", unique = true),
+        @Index(name = "idx_users_full_name", columnList = "full_name"),
+        @Index(name = "idx_users_phone", columnList = "phone")
+})
 public class User {
+    public static final String EMAIL_UNIQUE_INDEX = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
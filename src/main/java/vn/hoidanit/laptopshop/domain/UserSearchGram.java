@@ -0,0 +1,65 @@
+package vn.hoidanit.laptopshop.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/*
+ * index 3-gram (lower case) của email, full name, phone để admin tìm user theo 1 đoạn bất kỳ
+ * được cập nhật bởi UserSearchService mỗi khi user được lưu / xóa
+ */
+@Entity
+@Table(name = "user_search_grams", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_search_grams_gram_user", columnNames = { "gram", "user_id" })
+}, indexes = {
+        @Index(name = "idx_user_search_grams_user_id", columnList = "user_id")
+})
+public class UserSearchGram {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(length = 3)
+    private String gram;
+
+    @Column(name = "user_id")
+    private long userId;
+
+    public UserSearchGram() {
+    }
+
+    public UserSearchGram(String gram, long userId) {
+        this.gram = gram;
+        this.userId = userId;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getGram() {
+        return gram;
+    }
+
+    public void setGram(String gram) {
+        this.gram = gram;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+}
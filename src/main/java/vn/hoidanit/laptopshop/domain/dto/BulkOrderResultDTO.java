@@ -0,0 +1,23 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+/*
+ * số dòng bị ảnh hưởng bởi thao tác hàng loạt trên order
+ */
+public final class BulkOrderResultDTO {
+
+    private final int orders;
+    private final int orderDetails;
+
+    public BulkOrderResultDTO(int orders, int orderDetails) {
+        this.orders = orders;
+        this.orderDetails = orderDetails;
+    }
+
+    public int getOrders() {
+        return orders;
+    }
+
+    public int getOrderDetails() {
+        return orderDetails;
+    }
+}
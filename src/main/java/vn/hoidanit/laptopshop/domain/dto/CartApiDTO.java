@@ -0,0 +1,42 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * body của GET /api/v1/cart, tổng lấy từ CartViewDTO (đã tính sẵn)
+ */
+public final class CartApiDTO {
+
+    private final List<CartApiItemDTO> items;
+    private final int count;
+    private final long totalQuantity;
+    private final double totalPrice;
+
+    public CartApiDTO(CartViewDTO cart) {
+        List<CartApiItemDTO> lines = new ArrayList<>(cart.getCartDetails().size());
+        for (CartLineDTO line : cart.getCartDetails()) {
+            lines.add(new CartApiItemDTO(line));
+        }
+        this.items = lines;
+        this.count = lines.size();
+        this.totalQuantity = cart.getTotalQuantity();
+        this.totalPrice = cart.getTotalPrice();
+    }
+
+    public List<CartApiItemDTO> getItems() {
+        return items;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+}
@@ -0,0 +1,55 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+/*
+ * 1 dòng giỏ hàng trong GET /api/v1/cart (image là URL, không phải tên file)
+ */
+public final class CartApiItemDTO {
+
+    private final long id;
+    private final long productId;
+    private final String name;
+    private final String image;
+    private final double price;
+    private final long quantity;
+    private final double lineTotal;
+
+    public CartApiItemDTO(CartLineDTO line) {
+        this.id = line.getId();
+        this.productId = line.getProductId();
+        this.name = line.getProductName();
+        this.image = line.getProductImage() == null || line.getProductImage().isEmpty()
+                ? null
+                : "/images/product/" + line.getProductImage();
+        this.price = line.getPrice();
+        this.quantity = line.getQuantity();
+        this.lineTotal = line.getLineTotal();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public double getLineTotal() {
+        return lineTotal;
+    }
+}
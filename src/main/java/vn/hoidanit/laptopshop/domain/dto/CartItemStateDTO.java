@@ -0,0 +1,29 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+/*
+ * trạng thái sau khi thêm vào giỏ (AJAX): số dòng của giỏ (badge trên header) + số lượng của dòng vừa thêm
+ */
+public final class CartItemStateDTO {
+
+    private final long productId;
+    private final long quantity;
+    private final int cartSum;
+
+    public CartItemStateDTO(long productId, long quantity, int cartSum) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.cartSum = cartSum;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public int getCartSum() {
+        return cartSum;
+    }
+}
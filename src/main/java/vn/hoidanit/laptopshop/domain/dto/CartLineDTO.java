@@ -0,0 +1,53 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+/*
+ * 1 dòng trong giỏ hàng, chỉ giữ các field mà view cần
+ * (load bằng constructor expression, không kéo theo entity)
+ */
+public final class CartLineDTO {
+
+    private final long id;
+    private final long quantity;
+    private final double price;
+    private final long productId;
+    private final String productName;
+    private final String productImage;
+
+    public CartLineDTO(long id, long quantity, double price,
+            long productId, String productName, String productImage) {
+        this.id = id;
+        this.quantity = quantity;
+        this.price = price;
+        this.productId = productId;
+        this.productName = productName;
+        this.productImage = productImage;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public String getProductImage() {
+        return productImage;
+    }
+
+    public double getLineTotal() {
+        return price * quantity;
+    }
+}
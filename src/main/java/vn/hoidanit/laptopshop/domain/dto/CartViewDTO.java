@@ -0,0 +1,50 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * giỏ hàng dùng cho trang cart và checkout,
+ * tổng tiền được tính sẵn 1 lần khi tạo
+ */
+public final class CartViewDTO {
+
+    private static final CartViewDTO EMPTY = new CartViewDTO(Collections.emptyList());
+
+    private final List<CartLineDTO> cartDetails;
+    private final double totalPrice;
+    private final long totalQuantity;
+
+    public CartViewDTO(List<CartLineDTO> cartDetails) {
+        this.cartDetails = List.copyOf(cartDetails);
+
+        double price = 0;
+        long quantity = 0;
+        for (CartLineDTO line : this.cartDetails) {
+            price += line.getLineTotal();
+            quantity += line.getQuantity();
+        }
+        this.totalPrice = price;
+        this.totalQuantity = quantity;
+    }
+
+    public static CartViewDTO empty() {
+        return EMPTY;
+    }
+
+    public List<CartLineDTO> getCartDetails() {
+        return cartDetails;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public boolean isEmpty() {
+        return cartDetails.isEmpty();
+    }
+}
@@ -0,0 +1,65 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/*
+ * câu hỏi gửi lên chatbot, history giữ nguyên định dạng do backend trả về ở lượt trước
+ * history do client gửi lên nên bị giới hạn số lượt, độ sâu và tổng số node (client chỉ gửi các lượt gần nhất)
+ */
+public class ChatRequestDTO {
+
+    static final int MAX_HISTORY_ENTRIES = 10;
+    static final int MAX_HISTORY_DEPTH = 4;
+    static final int MAX_HISTORY_NODES = 200;
+
+    @NotBlank
+    @Size(max = 500, message = "Câu hỏi tối đa 500 ký tự")
+    private String query;
+
+    private JsonNode history;
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public JsonNode getHistory() {
+        return history;
+    }
+
+    public void setHistory(JsonNode history) {
+        this.history = history;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "History quá dài hoặc không hợp lệ")
+    public boolean isHistoryWithinLimits() {
+        if (history == null || history.isNull()) {
+            return true;
+        }
+        return history.size() <= MAX_HISTORY_ENTRIES && countNodes(history, 1) <= MAX_HISTORY_NODES;
+    }
+
+    // dừng sớm khi vượt giới hạn, quá sâu thì coi như vượt số node
+    private static int countNodes(JsonNode node, int depth) {
+        if (depth > MAX_HISTORY_DEPTH) {
+            return MAX_HISTORY_NODES + 1;
+        }
+        int count = 1;
+        for (JsonNode child : node) {
+            count += countNodes(child, depth + 1);
+            if (count > MAX_HISTORY_NODES) {
+                return count;
+            }
+        }
+        return count;
+    }
+}
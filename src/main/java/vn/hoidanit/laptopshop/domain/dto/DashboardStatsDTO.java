@@ -0,0 +1,71 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/*
+ * snapshot bất biến của số liệu dashboard, đọc không cần lock
+ */
+public final class DashboardStatsDTO {
+
+    private final long countUsers;
+    private final long countProducts;
+    private final long countOrders;
+    private final Map<String, Long> countOrdersByStatus;
+    private final Map<String, Double> revenueByStatus;
+    private final double revenue;
+    private final LocalDateTime reconciledAt;
+
+    public DashboardStatsDTO(long countUsers, long countProducts,
+            Map<String, Long> countOrdersByStatus, Map<String, Double> revenueByStatus,
+            LocalDateTime reconciledAt) {
+        this.countUsers = countUsers;
+        this.countProducts = countProducts;
+        this.countOrdersByStatus = Map.copyOf(countOrdersByStatus);
+        this.revenueByStatus = Map.copyOf(revenueByStatus);
+        this.reconciledAt = reconciledAt;
+
+        long orders = 0;
+        for (long count : this.countOrdersByStatus.values()) {
+            orders += count;
+        }
+        this.countOrders = orders;
+
+        // doanh thu không tính đơn đã hủy
+        double total = 0;
+        for (Map.Entry<String, Double> entry : this.revenueByStatus.entrySet()) {
+            if (!"CANCEL".equals(entry.getKey())) {
+                total += entry.getValue();
+            }
+        }
+        this.revenue = total;
+    }
+
+    public long getCountUsers() {
+        return countUsers;
+    }
+
+    public long getCountProducts() {
+        return countProducts;
+    }
+
+    public long getCountOrders() {
+        return countOrders;
+    }
+
+    public Map<String, Long> getCountOrdersByStatus() {
+        return countOrdersByStatus;
+    }
+
+    public Map<String, Double> getRevenueByStatus() {
+        return revenueByStatus;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+}
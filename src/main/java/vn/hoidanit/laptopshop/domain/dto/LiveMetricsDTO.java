@@ -0,0 +1,42 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+/*
+ * số liệu realtime gửi cho admin qua SSE mỗi tick
+ */
+public final class LiveMetricsDTO {
+
+    private final long timestamp;
+    private final long ordersPerMinute;
+    private final long revenuePerMinute;
+    private final long addToCartPerMinute;
+    private final long activeSessions;
+
+    public LiveMetricsDTO(long timestamp, long ordersPerMinute, long revenuePerMinute,
+            long addToCartPerMinute, long activeSessions) {
+        this.timestamp = timestamp;
+        this.ordersPerMinute = ordersPerMinute;
+        this.revenuePerMinute = revenuePerMinute;
+        this.addToCartPerMinute = addToCartPerMinute;
+        this.activeSessions = activeSessions;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getOrdersPerMinute() {
+        return ordersPerMinute;
+    }
+
+    public long getRevenuePerMinute() {
+        return revenuePerMinute;
+    }
+
+    public long getAddToCartPerMinute() {
+        return addToCartPerMinute;
+    }
+
+    public long getActiveSessions() {
+        return activeSessions;
+    }
+}
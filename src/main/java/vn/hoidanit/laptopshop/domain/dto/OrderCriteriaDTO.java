@@ -0,0 +1,70 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+import java.util.Optional;
+
+public class OrderCriteriaDTO {
+    private Optional<String> status;
+    private Optional<String> fromDate;
+    private Optional<String> toDate;
+    private Optional<String> email;
+    private Optional<String> minTotal;
+    private Optional<String> maxTotal;
+    private Optional<String> cursor;
+
+    public Optional<String> getStatus() {
+        return status;
+    }
+
+    public void setStatus(Optional<String> status) {
+        this.status = status;
+    }
+
+    public Optional<String> getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(Optional<String> fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public Optional<String> getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(Optional<String> toDate) {
+        this.toDate = toDate;
+    }
+
+    public Optional<String> getEmail() {
+        return email;
+    }
+
+    public void setEmail(Optional<String> email) {
+        this.email = email;
+    }
+
+    public Optional<String> getMinTotal() {
+        return minTotal;
+    }
+
+    public void setMinTotal(Optional<String> minTotal) {
+        this.minTotal = minTotal;
+    }
+
+    public Optional<String> getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(Optional<String> maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public Optional<String> getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(Optional<String> cursor) {
+        this.cursor = cursor;
+    }
+
+}
@@ -0,0 +1,47 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * 1 đơn hàng trong trang lịch sử mua hàng
+ */
+public final class OrderHistoryDTO {
+
+    private final long id;
+    private final double totalPrice;
+    private final String status;
+    private final List<OrderLineDTO> orderDetails;
+
+    // dùng cho constructor expression trong JPQL (chưa có order_detail)
+    public OrderHistoryDTO(long id, double totalPrice, String status) {
+        this(id, totalPrice, status, Collections.emptyList());
+    }
+
+    public OrderHistoryDTO(long id, double totalPrice, String status, List<OrderLineDTO> orderDetails) {
+        this.id = id;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.orderDetails = List.copyOf(orderDetails);
+    }
+
+    public OrderHistoryDTO withOrderDetails(List<OrderLineDTO> orderDetails) {
+        return new OrderHistoryDTO(this.id, this.totalPrice, this.status, orderDetails);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public List<OrderLineDTO> getOrderDetails() {
+        return orderDetails;
+    }
+}
@@ -0,0 +1,58 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+/*
+ * 1 dòng order_detail kèm thông tin tóm tắt của product
+ */
+public final class OrderLineDTO {
+
+    private final long orderId;
+    private final long id;
+    private final long quantity;
+    private final double price;
+    private final long productId;
+    private final String productName;
+    private final String productImage;
+
+    public OrderLineDTO(long orderId, long id, long quantity, double price,
+            long productId, String productName, String productImage) {
+        this.orderId = orderId;
+        this.id = id;
+        this.quantity = quantity;
+        this.price = price;
+        this.productId = productId;
+        this.productName = productName;
+        this.productImage = productImage;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public String getProductImage() {
+        return productImage;
+    }
+
+    public double getLineTotal() {
+        return price * quantity;
+    }
+}
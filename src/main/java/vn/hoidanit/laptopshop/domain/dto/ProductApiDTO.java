@@ -0,0 +1,84 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+/*
+ * 1 product trong /api/v1/products, đã đổi tên ảnh thành URL
+ * - filter FIELDS_FILTER giữ lại các field trong ?fields= (xem ProductApiController)
+ * - detailDesc chỉ có ở /products/{id}, trang danh sách để null
+ */
+@JsonFilter(ProductApiDTO.FIELDS_FILTER)
+public final class ProductApiDTO {
+
+    public static final String FIELDS_FILTER = "productFields";
+
+    private final long id;
+    private final String name;
+    private final double price;
+    private final String image;
+    private final String thumbnail;
+    private final String shortDesc;
+    private final String detailDesc;
+    private final String factory;
+    private final String target;
+    private final long quantity;
+    private final long sold;
+
+    public ProductApiDTO(ProductSummaryDTO product, String image, String thumbnail, String detailDesc) {
+        this.id = product.getId();
+        this.name = product.getName();
+        this.price = product.getPrice();
+        this.image = image;
+        this.thumbnail = thumbnail;
+        this.shortDesc = product.getShortDesc();
+        this.detailDesc = detailDesc;
+        this.factory = product.getFactory();
+        this.target = product.getTarget();
+        this.quantity = product.getQuantity();
+        this.sold = product.getSold();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public String getThumbnail() {
+        return thumbnail;
+    }
+
+    public String getShortDesc() {
+        return shortDesc;
+    }
+
+    public String getDetailDesc() {
+        return detailDesc;
+    }
+
+    public String getFactory() {
+        return factory;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getSold() {
+        return sold;
+    }
+}
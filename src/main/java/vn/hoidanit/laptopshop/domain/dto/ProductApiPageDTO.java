@@ -0,0 +1,25 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+import java.util.List;
+
+/*
+ * body của GET /api/v1/products: { data: [...], nextCursor }
+ */
+public final class ProductApiPageDTO {
+
+    private final List<ProductApiDTO> data;
+    private final String nextCursor;
+
+    public ProductApiPageDTO(List<ProductApiDTO> data, String nextCursor) {
+        this.data = List.copyOf(data);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ProductApiDTO> getData() {
+        return data;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
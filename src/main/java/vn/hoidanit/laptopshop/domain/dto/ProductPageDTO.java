@@ -0,0 +1,25 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+import java.util.List;
+
+/*
+ * 1 trang product (keyset), nextCursor = null khi đã hết
+ */
+public final class ProductPageDTO {
+
+    private final List<ProductSummaryDTO> products;
+    private final String nextCursor;
+
+    public ProductPageDTO(List<ProductSummaryDTO> products, String nextCursor) {
+        this.products = List.copyOf(products);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ProductSummaryDTO> getProducts() {
+        return products;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
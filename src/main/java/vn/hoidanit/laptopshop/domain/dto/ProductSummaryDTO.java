@@ -0,0 +1,72 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+/*
+ * product cho API /api/v1 (không có detailDesc, không kéo theo quan hệ nào)
+ */
+public final class ProductSummaryDTO {
+
+    private final long id;
+    private final String name;
+    private final double price;
+    private final String image;
+    private final String imageWidths;
+    private final String shortDesc;
+    private final String factory;
+    private final String target;
+    private final long quantity;
+    private final long sold;
+
+    public ProductSummaryDTO(long id, String name, double price, String image, String imageWidths,
+            String shortDesc, String factory, String target, long quantity, long sold) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.image = image;
+        this.imageWidths = imageWidths;
+        this.shortDesc = shortDesc;
+        this.factory = factory;
+        this.target = target;
+        this.quantity = quantity;
+        this.sold = sold;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public String getImageWidths() {
+        return imageWidths;
+    }
+
+    public String getShortDesc() {
+        return shortDesc;
+    }
+
+    public String getFactory() {
+        return factory;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getSold() {
+        return sold;
+    }
+}
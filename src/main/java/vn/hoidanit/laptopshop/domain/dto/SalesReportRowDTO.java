@@ -0,0 +1,49 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+/*
+ * 1 dòng báo cáo doanh số: key là product / factory / target hoặc ngày
+ */
+public final class SalesReportRowDTO {
+
+    private final String key;
+    private final String label;
+    private final long quantity;
+    private final double revenue;
+    private final long orderLines;
+
+    public SalesReportRowDTO(String key, long quantity, double revenue, long orderLines) {
+        this(key, key, quantity, revenue, orderLines);
+    }
+
+    public SalesReportRowDTO(String key, String label, long quantity, double revenue, long orderLines) {
+        this.key = key;
+        this.label = label;
+        this.quantity = quantity;
+        this.revenue = revenue;
+        this.orderLines = orderLines;
+    }
+
+    public SalesReportRowDTO withLabel(String label) {
+        return new SalesReportRowDTO(this.key, label, this.quantity, this.revenue, this.orderLines);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public long getOrderLines() {
+        return orderLines;
+    }
+}
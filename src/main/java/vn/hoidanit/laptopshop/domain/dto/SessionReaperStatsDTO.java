@@ -0,0 +1,55 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+/*
+ * số liệu của job dọn session hết hạn (SessionReaperService)
+ */
+public final class SessionReaperStatsDTO {
+
+    private final long rowsReaped;
+    private final long batches;
+    // ước lượng, chặn trên ở SessionReaperService.BACKLOG_COUNT_LIMIT
+    private final long backlog;
+    private final long lastBatchMillis;
+    private final double avgBatchMillis;
+    private final int batchSize;
+    private final long lastRunAt;
+
+    public SessionReaperStatsDTO(long rowsReaped, long batches, long backlog, long lastBatchMillis,
+            double avgBatchMillis, int batchSize, long lastRunAt) {
+        this.rowsReaped = rowsReaped;
+        this.batches = batches;
+        this.backlog = backlog;
+        this.lastBatchMillis = lastBatchMillis;
+        this.avgBatchMillis = avgBatchMillis;
+        this.batchSize = batchSize;
+        this.lastRunAt = lastRunAt;
+    }
+
+    public long getRowsReaped() {
+        return rowsReaped;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getBacklog() {
+        return backlog;
+    }
+
+    public long getLastBatchMillis() {
+        return lastBatchMillis;
+    }
+
+    public double getAvgBatchMillis() {
+        return avgBatchMillis;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getLastRunAt() {
+        return lastRunAt;
+    }
+}
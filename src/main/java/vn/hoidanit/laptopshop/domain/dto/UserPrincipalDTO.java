@@ -0,0 +1,55 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+/*
+ * thông tin user cần cho đăng nhập + session, load bằng 1 query (users join roles join carts)
+ * bất biến nên có thể cache dùng chung
+ */
+public final class UserPrincipalDTO {
+
+    private final long id;
+    private final String email;
+    private final String password;
+    private final String fullName;
+    private final String avatar;
+    private final String roleName;
+    private final int cartSum;
+
+    public UserPrincipalDTO(long id, String email, String password, String fullName,
+            String avatar, String roleName, Integer cartSum) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.fullName = fullName;
+        this.avatar = avatar;
+        this.roleName = roleName;
+        this.cartSum = cartSum == null ? 0 : cartSum;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getAvatar() {
+        return avatar;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    public int getCartSum() {
+        return cartSum;
+    }
+}
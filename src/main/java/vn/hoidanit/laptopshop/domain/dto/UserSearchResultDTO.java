@@ -0,0 +1,27 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+import java.util.List;
+
+/*
+ * 1 trang kết quả tìm user
+ * nextCursor = null khi đã hết; không nhất thiết bằng id cuối của users
+ * (tìm theo gram có thể loại bớt ứng viên sau khi kiểm tra lại)
+ */
+public final class UserSearchResultDTO {
+
+    private final List<UserSummaryDTO> users;
+    private final Long nextCursor;
+
+    public UserSearchResultDTO(List<UserSummaryDTO> users, Long nextCursor) {
+        this.users = List.copyOf(users);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserSummaryDTO> getUsers() {
+        return users;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,41 @@
+package vn.hoidanit.laptopshop.domain.dto;
+
+/*
+ * 1 dòng trong bảng user của admin, không kéo theo orders / cart
+ */
+public final class UserSummaryDTO {
+
+    private final long id;
+    private final String email;
+    private final String fullName;
+    private final String phone;
+    private final String roleName;
+
+    public UserSummaryDTO(long id, String email, String fullName, String phone, String roleName) {
+        this.id = id;
+        this.email = email;
+        this.fullName = fullName;
+        this.phone = phone;
+        this.roleName = roleName;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+}
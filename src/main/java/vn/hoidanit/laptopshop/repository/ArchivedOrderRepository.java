@@ -0,0 +1,56 @@
+package vn.hoidanit.laptopshop.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import vn.hoidanit.laptopshop.domain.ArchivedOrder;
+import vn.hoidanit.laptopshop.domain.dto.OrderHistoryDTO;
+import vn.hoidanit.laptopshop.domain.dto.OrderLineDTO;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    // copy nguyên dòng từ bảng nóng sang bảng lạnh (giữ id)
+    @Modifying
+    @Query(value = "insert into orders_archive (id, total_price, receiver_name, receiver_address, receiver_phone, "
+            + "status, created_at, updated_at, user_id, archived_at) "
+            + "select id, total_price, receiver_name, receiver_address, receiver_phone, "
+            + "status, created_at, updated_at, user_id, now() from orders where id in (:ids)", nativeQuery = true)
+    int copyOrders(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "insert into order_detail_archive (id, quantity, price, order_id, product_id) "
+            + "select id, quantity, price, order_id, product_id from order_detail where order_id in (:ids)",
+            nativeQuery = true)
+    int copyOrderDetails(@Param("ids") Collection<Long> ids);
+
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.OrderHistoryDTO(o.id, o.totalPrice, o.status) "
+            + "from ArchivedOrder o where o.user.id = :userId and o.id < :cursor order by o.id desc")
+    List<OrderHistoryDTO> findHistoryByUserId(@Param("userId") long userId,
+            @Param("cursor") long cursor, Pageable pageable);
+
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.OrderLineDTO("
+            + "od.order.id, od.id, od.quantity, od.price, p.id, p.name, p.image) "
+            + "from ArchivedOrderDetail od join od.product p "
+            + "where od.order.id in :orderIds order by od.id")
+    List<OrderLineDTO> findLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("select o.status, count(o), coalesce(sum(o.totalPrice), 0) from ArchivedOrder o group by o.status")
+    List<Object[]> countAndSumByStatus();
+
+    // [product id, factory, target, ngày, sum(quantity), sum(quantity * price), số dòng] của order đã archive,
+    // chỉ dùng khi dựng lại sales_daily từ đầu (bảng archive không còn thay đổi)
+    @Query(value = "select od.product_id, p.factory, p.target, date(o.created_at), sum(od.quantity), "
+            + "sum(od.quantity * od.price), count(*) from order_detail_archive od "
+            + "join orders_archive o on o.id = od.order_id join products p on p.id = od.product_id "
+            + "where o.created_at is not null and (o.status is null or o.status <> 'CANCEL') "
+            + "group by od.product_id, p.factory, p.target, date(o.created_at)", nativeQuery = true)
+    List<Object[]> sumRollupRows();
+}
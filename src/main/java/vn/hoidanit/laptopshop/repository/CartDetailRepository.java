@@ -1,15 +1,42 @@
 package vn.hoidanit.laptopshop.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import vn.hoidanit.laptopshop.domain.Cart;
 import vn.hoidanit.laptopshop.domain.CartDetail;
 import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.dto.CartItemStateDTO;
+import vn.hoidanit.laptopshop.domain.dto.CartLineDTO;
 
 @Repository
 public interface CartDetailRepository extends JpaRepository<CartDetail, Long> {
     boolean existsByCartAndProduct(Cart cart, Product product);
 
     CartDetail findByCartAndProduct(Cart cart, Product product);
-}
\ No newline at end of file
+
+    // 1 query duy nhất: cart_detail join carts join products
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.CartLineDTO("
+            + "cd.id, cd.quantity, cd.price, p.id, p.name, p.image) "
+            + "from CartDetail cd join cd.cart c join cd.product p "
+            + "where c.user.id = :userId order by cd.id")
+    List<CartLineDTO> findCartLinesByUserId(@Param("userId") long userId);
+
+    // sản phẩm đã có trong giỏ: chỉ 1 câu UPDATE, 0 = chưa có dòng (hoặc chưa có giỏ)
+    @Modifying
+    @Query("update CartDetail cd set cd.quantity = cd.quantity + :quantity "
+            + "where cd.product.id = :productId "
+            + "and cd.cart.id = (select c.id from Cart c where c.user.id = :userId)")
+    int incrementQuantity(@Param("userId") long userId, @Param("productId") long productId,
+            @Param("quantity") long quantity);
+
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.CartItemStateDTO(p.id, cd.quantity, c.sum) "
+            + "from CartDetail cd join cd.cart c join cd.product p "
+            + "where c.user.id = :userId and p.id = :productId")
+    CartItemStateDTO findItemState(@Param("userId") long userId, @Param("productId") long productId);
+}
@@ -1,11 +1,43 @@
 package vn.hoidanit.laptopshop.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import vn.hoidanit.laptopshop.domain.OrderDetail;
+import vn.hoidanit.laptopshop.domain.dto.OrderLineDTO;
 
 @Repository
 public interface OrderDetailRepository extends JpaRepository<OrderDetail, Long> {
 
-}
\ No newline at end of file
+    // load tất cả order_detail + product của các order trong 1 trang bằng 1 query
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.OrderLineDTO("
+            + "od.order.id, od.id, od.quantity, od.price, p.id, p.name, p.image) "
+            + "from OrderDetail od join od.product p "
+            + "where od.order.id in :orderIds order by od.id")
+    List<OrderLineDTO> findLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    // [id, quantity, price, product id, factory, target, order created_at, order status] cho job rollup doanh số
+    @Query("select od.id, od.quantity, od.price, p.id, p.factory, p.target, o.createdAt, o.status "
+            + "from OrderDetail od join od.order o join od.product p "
+            + "where od.id > :watermark order by od.id")
+    List<Object[]> findRollupRowsAfter(@Param("watermark") long watermark, Pageable pageable);
+
+    // như trên, nhưng chỉ các dòng đã được rollup (id <= watermark) của các order sắp bị xóa / đổi status
+    @Query("select od.id, od.quantity, od.price, p.id, p.factory, p.target, o.createdAt, o.status "
+            + "from OrderDetail od join od.order o join od.product p "
+            + "where o.id in :orderIds and od.id <= :watermark")
+    List<Object[]> findRolledUpRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds,
+            @Param("watermark") long watermark);
+
+    // xóa order_detail của nhiều order bằng 1 câu DELETE ... WHERE order_id IN (...)
+    @Modifying
+    @Query("delete from OrderDetail od where od.order.id in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -1,14 +1,66 @@
 package vn.hoidanit.laptopshop.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import vn.hoidanit.laptopshop.domain.Order;
 import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.domain.dto.OrderHistoryDTO;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
     List<Order> findByUser(User user);
-}
\ No newline at end of file
+
+    // keyset: id giảm dần, lấy các order có id < cursor
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.OrderHistoryDTO(o.id, o.totalPrice, o.status) "
+            + "from Order o where o.user.id = :userId and o.id < :cursor order by o.id desc")
+    List<OrderHistoryDTO> findHistoryByUserId(@Param("userId") long userId,
+            @Param("cursor") long cursor, Pageable pageable);
+
+    // [status, count, sum(totalPrice)] cho việc đối soát thống kê dashboard
+    @Query("select o.status, count(o), coalesce(sum(o.totalPrice), 0) from Order o group by o.status")
+    List<Object[]> countAndSumByStatus();
+
+    // như trên nhưng chỉ trên các order sắp bị xóa / đổi status, để cộng trừ thống kê thay vì đếm lại
+    @Query("select o.status, count(o), coalesce(sum(o.totalPrice), 0) from Order o "
+            + "where o.id in :ids group by o.status")
+    List<Object[]> countAndSumByStatusForIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Order o set o.status = :status, o.updatedAt = :updatedAt "
+            + "where o.id in :ids and (o.status is null or o.status <> :status)")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") String status,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    // các order đủ điều kiện chuyển sang bảng archive (dùng index status + created_at)
+    // - chỉ lấy order mà mọi order_detail đã được rollup vào sales_daily (id <= rolledUpId),
+    //   để báo cáo doanh số không mất các dòng đã chuyển đi
+    // - FOR UPDATE: gọi trong transaction chuyển batch, admin đổi status giữa lúc chọn và lúc chuyển
+    //   thì phải chờ (order đã chuyển thì UPDATE không còn dòng nào)
+    @Query(value = "select o.id from orders o where o.status in (:statuses) and o.created_at < :cutoff "
+            + "and not exists (select 1 from order_detail od where od.order_id = o.id and od.id > :rolledUpId) "
+            + "order by o.id limit :limit for update", nativeQuery = true)
+    List<Long> lockArchivableIds(@Param("statuses") Collection<String> statuses,
+            @Param("cutoff") LocalDateTime cutoff, @Param("rolledUpId") long rolledUpId, @Param("limit") int limit);
+
+    // order tạo trước khi có cột created_at
+    @Query("select o.id from Order o where o.createdAt is null order by o.id")
+    List<Long> findIdsWithoutCreatedAt(Pageable pageable);
+
+    @Modifying
+    @Query("update Order o set o.createdAt = coalesce(o.updatedAt, :now) where o.id in :ids and o.createdAt is null")
+    int backfillCreatedAt(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from Order o where o.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
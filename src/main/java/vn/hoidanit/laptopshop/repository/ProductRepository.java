@@ -1,17 +1,41 @@
 package vn.hoidanit.laptopshop.repository;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.dto.ProductSummaryDTO;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository
+        extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductSummaryRepository {
     Page<Product> findAll(Pageable page);
 
     Page<Product> findAll(Specification<Product> spec, Pageable page);
-}
\ No newline at end of file
+
+    // product có ảnh nhưng chưa sinh variant (image_widths null) hoặc chưa có width ảnh gốc, duyệt theo id
+    @Query("select p from Product p where p.id > :after and p.image is not null and p.image <> ''"
+            + " and (p.imageWidths is null or p.imageSourceWidth is null) order by p.id")
+    List<Product> findMissingImageWidths(@Param("after") long after, Pageable limit);
+
+    // ảnh lưu theo nội dung nên nhiều product có thể dùng chung 1 ảnh
+    @Modifying
+    @Query("update Product p set p.imageWidths = :widths, p.imageSourceWidth = :sourceWidth where p.image = :image")
+    int updateImageWidths(@Param("image") String image, @Param("widths") String widths,
+            @Param("sourceWidth") Integer sourceWidth);
+
+    // catalog rút gọn cho chatbot, bán chạy trước
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.ProductSummaryDTO("
+            + "p.id, p.name, p.price, p.image, p.imageWidths, p.shortDesc, p.factory, p.target, p.quantity, p.sold) "
+            + "from Product p order by p.sold desc, p.id")
+    List<ProductSummaryDTO> findTopSellingSummaries(Pageable limit);
+}
@@ -0,0 +1,18 @@
+package vn.hoidanit.laptopshop.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.dto.ProductSummaryDTO;
+
+/*
+ * lọc bằng Specification nhưng chỉ select các cột của ProductSummaryDTO
+ * (findBy(spec, ...) của spring data luôn load cả entity, kể cả detail_desc)
+ */
+public interface ProductSummaryRepository {
+
+    List<ProductSummaryDTO> findSummaries(Specification<Product> spec, Sort sort, int limit);
+}
@@ -0,0 +1,44 @@
+package vn.hoidanit.laptopshop.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.Product_;
+import vn.hoidanit.laptopshop.domain.dto.ProductSummaryDTO;
+
+// cùng các cột với ProductRepository.findTopSellingSummaries
+class ProductSummaryRepositoryImpl implements ProductSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductSummaryDTO> findSummaries(Specification<Product> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummaryDTO> query = cb.createQuery(ProductSummaryDTO.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.construct(ProductSummaryDTO.class,
+                root.get(Product_.id), root.get(Product_.name), root.get(Product_.price),
+                root.get(Product_.image), root.get(Product_.imageWidths), root.get(Product_.shortDesc),
+                root.get(Product_.factory), root.get(Product_.target), root.get(Product_.quantity),
+                root.get(Product_.sold)));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return this.entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,44 @@
+package vn.hoidanit.laptopshop.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import vn.hoidanit.laptopshop.domain.SalesDaily;
+import vn.hoidanit.laptopshop.domain.dto.SalesReportRowDTO;
+
+@Repository
+public interface SalesDailyRepository extends JpaRepository<SalesDaily, Long> {
+
+    // cộng dồn vào dòng (dimension, day, key), tạo mới nếu chưa có (MySQL upsert)
+    @Modifying
+    @Query(value = "insert into sales_daily (dimension, day, dimension_key, quantity, revenue, order_lines) "
+            + "values (:dimension, :day, :dimensionKey, :quantity, :revenue, :orderLines) "
+            + "on duplicate key update quantity = quantity + values(quantity), "
+            + "revenue = revenue + values(revenue), order_lines = order_lines + values(order_lines)",
+            nativeQuery = true)
+    int upsert(@Param("dimension") String dimension, @Param("day") LocalDate day,
+            @Param("dimensionKey") String dimensionKey, @Param("quantity") long quantity,
+            @Param("revenue") double revenue, @Param("orderLines") long orderLines);
+
+    // tổng theo key trong khoảng ngày
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.SalesReportRowDTO("
+            + "s.dimensionKey, sum(s.quantity), sum(s.revenue), sum(s.orderLines)) "
+            + "from SalesDaily s where s.dimension = :dimension and s.day between :from and :to "
+            + "group by s.dimensionKey order by sum(s.revenue) desc")
+    List<SalesReportRowDTO> sumByKey(@Param("dimension") String dimension,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // tổng theo ngày trong khoảng ngày (dùng 1 dimension bất kỳ, mỗi order_detail được tính đúng 1 lần)
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.SalesReportRowDTO("
+            + "cast(s.day as string), sum(s.quantity), sum(s.revenue), sum(s.orderLines)) "
+            + "from SalesDaily s where s.dimension = :dimension and s.day between :from and :to "
+            + "group by s.day order by s.day")
+    List<SalesReportRowDTO> sumByDay(@Param("dimension") String dimension,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,40 @@
+package vn.hoidanit.laptopshop.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import vn.hoidanit.laptopshop.domain.SessionVersion;
+
+@Repository
+public interface SessionVersionRepository extends JpaRepository<SessionVersion, String> {
+
+    // tăng version (tạo mới = 1), giá trị mới đọc lại bằng lastInsertId() trên cùng connection
+    @Modifying
+    @Query(value = "insert into spring_session_version (session_id, version, updated_at, expires_at) "
+            + "values (:sessionId, last_insert_id(1), :now, :expiresAt) "
+            + "on duplicate key update version = last_insert_id(version + 1), updated_at = :now, "
+            + "expires_at = :expiresAt",
+            nativeQuery = true)
+    int bump(@Param("sessionId") String sessionId, @Param("now") LocalDateTime now,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query(value = "select last_insert_id()", nativeQuery = true)
+    Long lastInsertId();
+
+    @Query("select v.version from SessionVersion v where v.sessionId = :sessionId")
+    Long findVersion(@Param("sessionId") String sessionId);
+
+    @Query("select v from SessionVersion v where v.updatedAt >= :since")
+    List<SessionVersion> findChangedSince(@Param("since") LocalDateTime since);
+
+    // dòng cũ chưa có expires_at thì tính theo updated_at
+    @Modifying
+    @Query("delete from SessionVersion v where coalesce(v.expiresAt, v.updatedAt) < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
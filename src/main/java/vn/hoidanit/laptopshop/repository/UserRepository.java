@@ -1,10 +1,24 @@
 package vn.hoidanit.laptopshop.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.domain.dto.UserPrincipalDTO;
+import vn.hoidanit.laptopshop.domain.dto.UserSummaryDTO;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,13 +26,53 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     void deleteById(long id);
 
-    List<User> findByEmailContaining(String email);
-
-    List<User> findAll();
-
     User findById(long id);
 
     boolean existsByEmail(String email);
 
     User findByEmail(String email);
+
+    // đọc toàn bộ email theo kiểu stream (fetch size MIN_VALUE = MySQL streaming result set)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("select u.email from User u where u.email is not null")
+    Stream<String> streamAllEmails();
+
+    // dùng khi đăng nhập: user + role + cart sum trong 1 query
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.UserPrincipalDTO("
+            + "u.id, u.email, u.password, u.fullName, u.avatar, r.name, c.sum) "
+            + "from User u left join u.role r left join u.cart c where u.email = :email")
+    UserPrincipalDTO findPrincipalByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+
+    // ===== admin search: projection, keyset theo id giảm dần =====
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.UserSummaryDTO("
+            + "u.id, u.email, u.fullName, u.phone, r.name) "
+            + "from User u left join u.role r where u.id < :cursor order by u.id desc")
+    List<UserSummaryDTO> findSummariesBefore(@Param("cursor") long cursor, Pageable pageable);
+
+    // prefix (like 'x%') dùng được index của email / full_name / phone
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.UserSummaryDTO("
+            + "u.id, u.email, u.fullName, u.phone, r.name) "
+            + "from User u left join u.role r where u.id < :cursor "
+            + "and (u.email like :prefix escape '!' or u.fullName like :prefix escape '!' "
+            + "or u.phone like :prefix escape '!') "
+            + "order by u.id desc")
+    List<UserSummaryDTO> findSummariesByPrefix(@Param("prefix") String prefix, @Param("cursor") long cursor,
+            Pageable pageable);
+
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.UserSummaryDTO("
+            + "u.id, u.email, u.fullName, u.phone, r.name) "
+            + "from User u left join u.role r where u.id in :ids order by u.id desc")
+    List<UserSummaryDTO> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // user chưa có gram nào (dữ liệu cũ trước khi có index), theo id tăng dần
+    @Query("select new vn.hoidanit.laptopshop.domain.dto.UserSummaryDTO("
+            + "u.id, u.email, u.fullName, u.phone, r.name) "
+            + "from User u left join u.role r where u.id > :after "
+            + "and not exists (select 1 from UserSearchGram g where g.userId = u.id) "
+            + "order by u.id")
+    List<UserSummaryDTO> findUnindexedAfter(@Param("after") long after, Pageable pageable);
 }
@@ -0,0 +1,31 @@
+package vn.hoidanit.laptopshop.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import vn.hoidanit.laptopshop.domain.UserSearchGram;
+
+@Repository
+public interface UserSearchGramRepository extends JpaRepository<UserSearchGram, Long> {
+
+    // user có đủ tất cả gram của từ khóa, keyset theo id giảm dần
+    @Query("select g.userId from UserSearchGram g "
+            + "where g.gram in :grams and g.userId < :cursor "
+            + "group by g.userId having count(g.gram) = :gramCount "
+            + "order by g.userId desc")
+    List<Long> findUserIdsByGrams(@Param("grams") Collection<String> grams,
+            @Param("gramCount") long gramCount,
+            @Param("cursor") long cursor,
+            Pageable pageable);
+
+    @Modifying
+    @Query("delete from UserSearchGram g where g.userId = :userId")
+    int deleteByUserId(@Param("userId") long userId);
+}
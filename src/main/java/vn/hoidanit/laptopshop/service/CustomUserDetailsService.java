@@ -1,16 +1,15 @@
 package vn.hoidanit.laptopshop.service;
 
-import java.util.Collections;
-
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import vn.hoidanit.laptopshop.domain.dto.UserPrincipalDTO;
+
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserService userService;
 
     public CustomUserDetailsService(UserService userService) {
@@ -19,14 +18,20 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        vn.hoidanit.laptopshop.domain.User user = this.userService.getUserByEmail(username);
+        // 1 query: user + role + cart sum (có cache TTL ngắn)
+        UserPrincipalDTO user = this.userService.getUserPrincipalByEmail(username);
         if (user == null) {
             throw new UsernameNotFoundException("user not found");
         }
 
-        return new User(
-                user.getEmail(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().getName())));
+        return new UserPrincipal(user);
+    }
+
+    // gọi sau khi đăng nhập thành công mà hash cũ cần được hash lại
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        this.userService.updatePasswordHash(user.getUsername(), newPassword);
+        // principal sẽ bị xóa password ngay sau đó (eraseCredentials) nên không cần set lại
+        return user;
     }
 }
@@ -0,0 +1,205 @@
+package vn.hoidanit.laptopshop.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import vn.hoidanit.laptopshop.domain.dto.DashboardStatsDTO;
+import vn.hoidanit.laptopshop.repository.ArchivedOrderRepository;
+import vn.hoidanit.laptopshop.repository.OrderRepository;
+import vn.hoidanit.laptopshop.repository.ProductRepository;
+import vn.hoidanit.laptopshop.repository.UserRepository;
+
+/*
+ * giữ số liệu dashboard trong bộ nhớ:
+ * - cập nhật tăng dần mỗi khi user / product / order được ghi (DashboardStatsListener)
+ * - định kỳ đối soát lại với DB để sửa sai lệch (bulk update, rollback, node khác ghi...)
+ * đọc chỉ là 1 lần đọc volatile, ghi thì copy-on-write dưới lock
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final String UNKNOWN_STATUS = "UNKNOWN";
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+
+    private volatile DashboardStatsDTO stats;
+
+    public DashboardStatsService(
+            UserRepository userRepository,
+            ProductRepository productRepository,
+            OrderRepository orderRepository,
+            ArchivedOrderRepository archivedOrderRepository) {
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+    }
+
+    public DashboardStatsDTO getStats() {
+        DashboardStatsDTO current = this.stats;
+        if (current == null) {
+            this.reconcile();
+            current = this.stats;
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${laptopshop.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long countUsers = this.userRepository.count();
+        long countProducts = this.productRepository.count();
+
+        Map<String, Long> countByStatus = new HashMap<>();
+        Map<String, Double> revenueByStatus = new HashMap<>();
+        // order đã archive vẫn tính vào thống kê
+        List<Object[]> rows = new ArrayList<>(this.orderRepository.countAndSumByStatus());
+        rows.addAll(this.archivedOrderRepository.countAndSumByStatus());
+        for (Object[] row : rows) {
+            String status = normalizeStatus((String) row[0]);
+            countByStatus.merge(status, ((Number) row[1]).longValue(), Long::sum);
+            revenueByStatus.merge(status, ((Number) row[2]).doubleValue(), Double::sum);
+        }
+
+        // ghi đè toàn bộ: các thay đổi xảy ra trong lúc query có thể lệch, lần đối soát sau sẽ sửa
+        synchronized (this) {
+            this.stats = new DashboardStatsDTO(countUsers, countProducts,
+                    countByStatus, revenueByStatus, LocalDateTime.now());
+        }
+    }
+
+    /*
+     * dùng sau các câu UPDATE/DELETE hàng loạt (không đi qua entity listener):
+     * rows = [status, count, sum(totalPrice)] của các order bị ảnh hưởng, đọc trước câu UPDATE/DELETE
+     * newStatus = null nghĩa là các order đó bị xóa
+     * chỉ cộng trừ sau khi commit, lệch do ghi đồng thời sẽ được lần đối soát định kỳ sửa
+     */
+    public void onOrdersBulkChangedAfterCommit(List<Object[]> rows, String newStatus) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyBulkChange(rows, newStatus);
+                }
+            });
+        } else {
+            this.applyBulkChange(rows, newStatus);
+        }
+    }
+
+    private void applyBulkChange(List<Object[]> rows, String newStatus) {
+        synchronized (this) {
+            DashboardStatsDTO current = this.stats;
+            if (current == null) {
+                return;
+            }
+            Map<String, Long> countByStatus = new HashMap<>(current.getCountOrdersByStatus());
+            Map<String, Double> revenueByStatus = new HashMap<>(current.getRevenueByStatus());
+            for (Object[] row : rows) {
+                String status = normalizeStatus((String) row[0]);
+                long count = ((Number) row[1]).longValue();
+                double revenue = ((Number) row[2]).doubleValue();
+                if (status.equals(newStatus)) {
+                    continue;
+                }
+                addToBucket(countByStatus, revenueByStatus, status, -count, -revenue);
+                if (newStatus != null) {
+                    addToBucket(countByStatus, revenueByStatus, newStatus, count, revenue);
+                }
+            }
+
+            this.stats = new DashboardStatsDTO(current.getCountUsers(), current.getCountProducts(),
+                    countByStatus, revenueByStatus, current.getReconciledAt());
+        }
+    }
+
+    public void onUserCountChanged(long delta) {
+        synchronized (this) {
+            DashboardStatsDTO current = this.stats;
+            if (current == null) {
+                return;
+            }
+            this.stats = new DashboardStatsDTO(current.getCountUsers() + delta, current.getCountProducts(),
+                    current.getCountOrdersByStatus(), current.getRevenueByStatus(), current.getReconciledAt());
+        }
+    }
+
+    public void onProductCountChanged(long delta) {
+        synchronized (this) {
+            DashboardStatsDTO current = this.stats;
+            if (current == null) {
+                return;
+            }
+            this.stats = new DashboardStatsDTO(current.getCountUsers(), current.getCountProducts() + delta,
+                    current.getCountOrdersByStatus(), current.getRevenueByStatus(), current.getReconciledAt());
+        }
+    }
+
+    /*
+     * delta = 1 khi tạo order, -1 khi xóa order
+     */
+    public void onOrderCountChanged(String status, double totalPrice, long delta) {
+        synchronized (this) {
+            DashboardStatsDTO current = this.stats;
+            if (current == null) {
+                return;
+            }
+            Map<String, Long> countByStatus = new HashMap<>(current.getCountOrdersByStatus());
+            Map<String, Double> revenueByStatus = new HashMap<>(current.getRevenueByStatus());
+            addToBucket(countByStatus, revenueByStatus, normalizeStatus(status), delta, totalPrice * delta);
+
+            this.stats = new DashboardStatsDTO(current.getCountUsers(), current.getCountProducts(),
+                    countByStatus, revenueByStatus, current.getReconciledAt());
+        }
+    }
+
+    public void onOrderStatusChanged(String oldStatus, String newStatus, double totalPrice) {
+        String from = normalizeStatus(oldStatus);
+        String to = normalizeStatus(newStatus);
+        if (from.equals(to)) {
+            return;
+        }
+        synchronized (this) {
+            DashboardStatsDTO current = this.stats;
+            if (current == null) {
+                return;
+            }
+            Map<String, Long> countByStatus = new HashMap<>(current.getCountOrdersByStatus());
+            Map<String, Double> revenueByStatus = new HashMap<>(current.getRevenueByStatus());
+            addToBucket(countByStatus, revenueByStatus, from, -1, -totalPrice);
+            addToBucket(countByStatus, revenueByStatus, to, 1, totalPrice);
+
+            this.stats = new DashboardStatsDTO(current.getCountUsers(), current.getCountProducts(),
+                    countByStatus, revenueByStatus, current.getReconciledAt());
+        }
+    }
+
+    private static void addToBucket(Map<String, Long> countByStatus, Map<String, Double> revenueByStatus,
+            String status, long count, double revenue) {
+        long newCount = countByStatus.getOrDefault(status, 0L) + count;
+        if (newCount <= 0) {
+            countByStatus.remove(status);
+            revenueByStatus.remove(status);
+            return;
+        }
+        countByStatus.put(status, newCount);
+        revenueByStatus.merge(status, revenue, Double::sum);
+    }
+
+    private static String normalizeStatus(String status) {
+        return status == null ? UNKNOWN_STATUS : status;
+    }
+}
@@ -0,0 +1,150 @@
+package vn.hoidanit.laptopshop.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vn.hoidanit.laptopshop.repository.UserRepository;
+
+/*
+ * bloom filter các email đã đăng ký, dùng để trả lời nhanh "email chưa tồn tại"
+ * - mightContain = false -> chắc chắn chưa có, không cần query DB
+ * - mightContain = true  -> có thể có (sai số ~fpp), phải hỏi lại DB
+ * - build lúc khởi động bằng cách stream cột users.email, thêm email mỗi lần lưu user
+ * - filter chỉ biết email lưu trên node này: định kỳ build lại từ DB để nhận email đăng ký ở node khác
+ *   (và bỏ email của user đã xóa). Trong khoảng giữa 2 lần build có thể trả false sai,
+ *   khi đó unique index uk_users_email chặn bản ghi trùng (xem UserService.handleSaveUser)
+ * - khi chưa build xong luôn trả true để không trả lời sai
+ */
+@Service
+public class EmailBloomFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int words;
+    private final long bitCount;
+    private final int hashCount;
+    private volatile AtomicLongArray bits;
+    // bản đang build lại, put() ghi vào cả 2 để không mất email lưu trong lúc build
+    private volatile AtomicLongArray building;
+    private volatile boolean ready;
+
+    public EmailBloomFilter(UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${laptopshop.email-filter.expected-emails:1000000}") long expectedEmails,
+            @Value("${laptopshop.email-filter.fpp:0.01}") double fpp) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-expectedEmails * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.words = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(this.words);
+        this.bitCount = this.words * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / expectedEmails * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        this.rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${laptopshop.email-filter.rebuild-interval:PT10M}",
+            initialDelayString = "${laptopshop.email-filter.rebuild-interval:PT10M}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        AtomicLongArray next = new AtomicLongArray(this.words);
+        this.building = next;
+        Long count;
+        try {
+            count = this.transactionTemplate.execute(status -> {
+                long n = 0;
+                try (Stream<String> emails = this.userRepository.streamAllEmails()) {
+                    for (String email : (Iterable<String>) emails::iterator) {
+                        this.set(next, email);
+                        n++;
+                    }
+                }
+                return n;
+            });
+            this.bits = next;
+        } finally {
+            this.building = null;
+        }
+        this.ready = true;
+        log.info("Email bloom filter built with {} emails in {} ms ({} bits, {} hashes)",
+                count, System.currentTimeMillis() - start, this.bitCount, this.hashCount);
+    }
+
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+        this.set(this.bits, email);
+        AtomicLongArray next = this.building;
+        if (next != null) {
+            this.set(next, email);
+        }
+    }
+
+    private void set(AtomicLongArray target, String email) {
+        long h1 = hash(email);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, this.bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((target.get(word) & mask) == 0) {
+                target.accumulateAndGet(word, mask, (a, b) -> a | b);
+            }
+        }
+    }
+
+    public boolean mightContain(String email) {
+        if (!this.ready || email == null) {
+            return true;
+        }
+        AtomicLongArray current = this.bits;
+        long h1 = hash(email);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, this.bitCount);
+            if ((current.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // email so sánh không phân biệt hoa thường (collation của MySQL)
+    private static long hash(String email) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < email.length(); i++) {
+            h ^= Character.toLowerCase(email.charAt(i));
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
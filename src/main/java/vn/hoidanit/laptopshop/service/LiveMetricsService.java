@@ -0,0 +1,121 @@
+package vn.hoidanit.laptopshop.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import vn.hoidanit.laptopshop.domain.dto.LiveMetricsDTO;
+import vn.hoidanit.laptopshop.service.metrics.RollingWindow;
+
+/*
+ * số liệu realtime cho dashboard admin:
+ * - order / doanh thu / add-to-cart trong 60s gần nhất (RollingWindow, không lock)
+ * - số session hoạt động trong khoảng active-window gần nhất
+ * mỗi tick chỉ serialize 1 lần và gửi cùng 1 payload cho tất cả admin đang kết nối
+ */
+@Service
+public class LiveMetricsService {
+
+    private static final int WINDOW_SECONDS = 60;
+
+    private final RollingWindow orders = new RollingWindow(WINDOW_SECONDS);
+    private final RollingWindow revenue = new RollingWindow(WINDOW_SECONDS);
+    private final RollingWindow addToCart = new RollingWindow(WINDOW_SECONDS);
+
+    // session id -> lần cuối thấy request (ms)
+    private final Map<String, Long> sessionLastSeen = new ConcurrentHashMap<>();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private final ObjectMapper objectMapper;
+    private final long activeWindowMillis;
+    private final long emitterTimeoutMillis;
+
+    public LiveMetricsService(
+            ObjectMapper objectMapper,
+            @Value("${laptopshop.metrics.active-session-window:PT5M}") Duration activeWindow,
+            @Value("${laptopshop.metrics.emitter-timeout:PT30M}") Duration emitterTimeout) {
+        this.objectMapper = objectMapper;
+        this.activeWindowMillis = activeWindow.toMillis();
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+    }
+
+    public void recordOrder(double totalPrice) {
+        this.orders.add(1);
+        this.revenue.add(Math.round(totalPrice));
+    }
+
+    public void recordAddToCart() {
+        this.addToCart.add(1);
+    }
+
+    public void recordSessionActivity(String sessionId) {
+        this.sessionLastSeen.put(sessionId, System.currentTimeMillis());
+    }
+
+    public LiveMetricsDTO snapshot() {
+        return new LiveMetricsDTO(System.currentTimeMillis(),
+                this.orders.sum(), this.revenue.sum(), this.addToCart.sum(),
+                this.sessionLastSeen.size());
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(this.emitterTimeoutMillis);
+        emitter.onCompletion(() -> this.emitters.remove(emitter));
+        emitter.onTimeout(() -> this.emitters.remove(emitter));
+        emitter.onError(e -> this.emitters.remove(emitter));
+        this.emitters.add(emitter);
+
+        // gửi ngay số liệu hiện tại, không phải chờ tick kế tiếp
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("metrics")
+                    .data(this.objectMapper.writeValueAsString(this.snapshot()), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            this.emitters.remove(emitter);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedRateString = "${laptopshop.metrics.tick:PT2S}")
+    public void broadcast() {
+        // bỏ các session không còn hoạt động để map không phình ra
+        long expiredBefore = System.currentTimeMillis() - this.activeWindowMillis;
+        this.sessionLastSeen.values().removeIf(lastSeen -> lastSeen < expiredBefore);
+
+        if (this.emitters.isEmpty()) {
+            return;
+        }
+
+        String payload;
+        try {
+            payload = this.objectMapper.writeValueAsString(this.snapshot());
+        } catch (JsonProcessingException e) {
+            return;
+        }
+
+        for (SseEmitter emitter : this.emitters) {
+            try {
+                // builder không dùng lại được giữa các emitter, payload thì dùng chung
+                emitter.send(SseEmitter.event()
+                        .name("metrics")
+                        .data(payload, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                this.emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
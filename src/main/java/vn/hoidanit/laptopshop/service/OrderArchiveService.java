@@ -0,0 +1,124 @@
+package vn.hoidanit.laptopshop.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vn.hoidanit.laptopshop.config.CacheConfig;
+import vn.hoidanit.laptopshop.domain.RollupWatermark;
+import vn.hoidanit.laptopshop.repository.ArchivedOrderRepository;
+import vn.hoidanit.laptopshop.repository.OrderDetailRepository;
+import vn.hoidanit.laptopshop.repository.OrderRepository;
+import vn.hoidanit.laptopshop.repository.RollupWatermarkRepository;
+
+/*
+ * job nền chuyển order cũ đã kết thúc từ orders/order_detail sang bảng archive
+ * - mỗi batch là 1 transaction nhỏ (copy -> delete), giữ lock ngắn
+ * - nghỉ giữa các batch và giới hạn số batch mỗi lần chạy để không ảnh hưởng traffic
+ * - order chưa được SalesRollupService tổng hợp thì để lại lần sau
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private final OrderRepository orderRepository;
+    private final OrderDetailRepository orderDetailRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final RollupWatermarkRepository rollupWatermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final Duration age;
+    private final List<String> finalStatuses;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration batchPause;
+
+    public OrderArchiveService(
+            OrderRepository orderRepository,
+            OrderDetailRepository orderDetailRepository,
+            ArchivedOrderRepository archivedOrderRepository,
+            RollupWatermarkRepository rollupWatermarkRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${laptopshop.archive.enabled:true}") boolean enabled,
+            @Value("${laptopshop.archive.age:P180D}") Duration age,
+            @Value("${laptopshop.archive.final-statuses:COMPLETE,CANCEL}") List<String> finalStatuses,
+            @Value("${laptopshop.archive.batch-size:500}") int batchSize,
+            @Value("${laptopshop.archive.max-batches-per-run:100}") int maxBatchesPerRun,
+            @Value("${laptopshop.archive.batch-pause:PT0.5S}") Duration batchPause) {
+        this.orderRepository = orderRepository;
+        this.orderDetailRepository = orderDetailRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.rollupWatermarkRepository = rollupWatermarkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.age = age;
+        this.finalStatuses = finalStatuses;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.batchPause = batchPause;
+    }
+
+    @Scheduled(fixedDelayString = "${laptopshop.archive.interval:PT1H}",
+            initialDelayString = "${laptopshop.archive.initial-delay:PT10M}")
+    @CacheEvict(cacheNames = CacheConfig.ORDER_HISTORY_CACHE, allEntries = true)
+    public void archiveOldOrders() {
+        if (!this.enabled) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(this.age);
+        // đọc 1 lần mỗi lần chạy: watermark chỉ tăng nên giá trị cũ vẫn an toàn
+        long rolledUpId = this.rollupWatermarkRepository.findById(SalesRollupService.WATERMARK_NAME)
+                .map(RollupWatermark::getLastId)
+                .orElse(0L);
+        int totalOrders = 0;
+        int batches = 0;
+        while (batches < this.maxBatchesPerRun) {
+            Integer moved = this.transactionTemplate.execute(status -> this.moveBatch(cutoff, rolledUpId));
+            int count = moved == null ? 0 : moved;
+            if (count == 0) {
+                break;
+            }
+            totalOrders += count;
+            batches++;
+
+            if (count < this.batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(this.batchPause.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (totalOrders > 0) {
+            log.info("Archived {} orders in {} batches (cutoff {})", totalOrders, batches, cutoff);
+        }
+    }
+
+    // chọn + khóa id trong cùng transaction với copy / delete: status không đổi được giữa chừng
+    private int moveBatch(LocalDateTime cutoff, long rolledUpId) {
+        List<Long> ids = this.orderRepository.lockArchivableIds(this.finalStatuses, cutoff, rolledUpId,
+                this.batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        this.archivedOrderRepository.copyOrders(ids);
+        this.archivedOrderRepository.copyOrderDetails(ids);
+        this.orderDetailRepository.deleteByOrderIds(ids);
+        return this.orderRepository.deleteByIds(ids);
+    }
+}
@@ -1,62 +1,320 @@
 package vn.hoidanit.laptopshop.service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import vn.hoidanit.laptopshop.config.CacheConfig;
+import vn.hoidanit.laptopshop.domain.ArchivedOrder;
+import vn.hoidanit.laptopshop.domain.ArchivedOrderDetail;
 import vn.hoidanit.laptopshop.domain.Order;
 import vn.hoidanit.laptopshop.domain.OrderDetail;
+import vn.hoidanit.laptopshop.domain.Order_;
 import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.domain.dto.BulkOrderResultDTO;
+import vn.hoidanit.laptopshop.domain.dto.OrderCriteriaDTO;
+import vn.hoidanit.laptopshop.domain.dto.OrderHistoryDTO;
+import vn.hoidanit.laptopshop.domain.dto.OrderLineDTO;
+import vn.hoidanit.laptopshop.repository.ArchivedOrderRepository;
 import vn.hoidanit.laptopshop.repository.OrderDetailRepository;
 import vn.hoidanit.laptopshop.repository.OrderRepository;
+import vn.hoidanit.laptopshop.service.specification.OrderSpecs;
 
 @Service
 public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderDetailRepository orderDetailRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final DashboardStatsService dashboardStatsService;
+    private final SalesRollupService salesRollupService;
 
     public OrderService(
             OrderRepository orderRepository,
-            OrderDetailRepository orderDetailRepository) {
+            OrderDetailRepository orderDetailRepository,
+            ArchivedOrderRepository archivedOrderRepository,
+            DashboardStatsService dashboardStatsService,
+            SalesRollupService salesRollupService) {
         this.orderDetailRepository = orderDetailRepository;
         this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.dashboardStatsService = dashboardStatsService;
+        this.salesRollupService = salesRollupService;
     }
 
     public Page<Order> fetchAllOrders(Pageable page) {
         return this.orderRepository.findAll(page);
     }
 
-    public Optional<Order> fetchOrderById(long id) {
-        return this.orderRepository.findById(id);
+    /*
+     * tìm kiếm order cho admin: status, khoảng ngày tạo, email khách hàng, khoảng tổng tiền
+     * phân trang keyset theo id giảm dần (không chạy count(*) trên toàn bảng)
+     */
+    public Slice<Order> fetchOrdersWithSpec(OrderCriteriaDTO orderCriteriaDTO, int size) {
+        Specification<Order> combinedSpec = Specification.where(null);
+
+        Optional<String> status = nonBlank(orderCriteriaDTO.getStatus());
+        if (status.isPresent()) {
+            combinedSpec = combinedSpec.and(OrderSpecs.matchStatus(status.get()));
+        }
+
+        Optional<LocalDate> fromDate = nonBlank(orderCriteriaDTO.getFromDate()).flatMap(OrderService::parseDate);
+        if (fromDate.isPresent()) {
+            combinedSpec = combinedSpec.and(OrderSpecs.createdFrom(fromDate.get().atStartOfDay()));
+        }
+
+        // toDate tính cả ngày đó
+        Optional<LocalDate> toDate = nonBlank(orderCriteriaDTO.getToDate()).flatMap(OrderService::parseDate);
+        if (toDate.isPresent()) {
+            combinedSpec = combinedSpec.and(OrderSpecs.createdBefore(toDate.get().plusDays(1).atStartOfDay()));
+        }
+
+        Optional<String> email = nonBlank(orderCriteriaDTO.getEmail());
+        if (email.isPresent()) {
+            combinedSpec = combinedSpec.and(OrderSpecs.matchUserEmail(email.get().trim()));
+        }
+
+        Optional<Double> minTotal = nonBlank(orderCriteriaDTO.getMinTotal()).flatMap(OrderService::parseDouble);
+        if (minTotal.isPresent()) {
+            combinedSpec = combinedSpec.and(OrderSpecs.minTotalPrice(minTotal.get()));
+        }
+
+        Optional<Double> maxTotal = nonBlank(orderCriteriaDTO.getMaxTotal()).flatMap(OrderService::parseDouble);
+        if (maxTotal.isPresent()) {
+            combinedSpec = combinedSpec.and(OrderSpecs.maxTotalPrice(maxTotal.get()));
+        }
+
+        Optional<Long> cursor = nonBlank(orderCriteriaDTO.getCursor()).flatMap(OrderService::parseLong);
+        if (cursor.isPresent()) {
+            combinedSpec = combinedSpec.and(OrderSpecs.idLessThan(cursor.get()));
+        }
+
+        // lấy dư 1 phần tử để biết còn trang sau hay không
+        List<Order> orders = this.orderRepository.findBy(combinedSpec, q -> q
+                .sortBy(Sort.by(Order_.ID).descending())
+                .limit(size + 1)
+                .all());
+        boolean hasNext = orders.size() > size;
+        if (hasNext) {
+            orders = orders.subList(0, size);
+        }
+        return new SliceImpl<>(orders, PageRequest.of(0, size), hasNext);
     }
 
-    public void deleteOrderById(long id) {
-        // delete order detail
-        Optional<Order> orderOptional = this.fetchOrderById(id);
+    private static Optional<String> nonBlank(Optional<String> value) {
+        return value == null ? Optional.empty() : value.filter(v -> !v.isBlank());
+    }
+
+    private static Optional<LocalDate> parseDate(String value) {
+        try {
+            return Optional.of(LocalDate.parse(value.trim()));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Double> parseDouble(String value) {
+        try {
+            return Optional.of(Double.parseDouble(value.trim()));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Long> parseLong(String value) {
+        try {
+            return Optional.of(Long.parseLong(value.trim()));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    /*
+     * tìm ở bảng orders trước, không có thì tìm ở bảng orders_archive
+     * order lấy từ archive được đánh dấu archived = true (chỉ để xem)
+     */
+    public Optional<Order> fetchOrderById(long id) {
+        Optional<Order> orderOptional = this.orderRepository.findById(id);
         if (orderOptional.isPresent()) {
-            Order order = orderOptional.get();
-            List<OrderDetail> orderDetails = order.getOrderDetails();
-            for (OrderDetail orderDetail : orderDetails) {
-                this.orderDetailRepository.deleteById(orderDetail.getId());
+            return orderOptional;
+        }
+        return this.archivedOrderRepository.findById(id).map(OrderService::toOrder);
+    }
+
+    private static Order toOrder(ArchivedOrder archivedOrder) {
+        Order order = new Order();
+        order.setId(archivedOrder.getId());
+        order.setTotalPrice(archivedOrder.getTotalPrice());
+        order.setReceiverName(archivedOrder.getReceiverName());
+        order.setReceiverAddress(archivedOrder.getReceiverAddress());
+        order.setReceiverPhone(archivedOrder.getReceiverPhone());
+        order.setStatus(archivedOrder.getStatus());
+        order.setCreatedAt(archivedOrder.getCreatedAt());
+        order.setUpdatedAt(archivedOrder.getUpdatedAt());
+        order.setUser(archivedOrder.getUser());
+        order.setArchived(true);
+
+        List<OrderDetail> orderDetails = new ArrayList<>();
+        if (archivedOrder.getOrderDetails() != null) {
+            for (ArchivedOrderDetail archivedDetail : archivedOrder.getOrderDetails()) {
+                OrderDetail orderDetail = new OrderDetail();
+                orderDetail.setId(archivedDetail.getId());
+                orderDetail.setOrder(order);
+                orderDetail.setProduct(archivedDetail.getProduct());
+                orderDetail.setPrice(archivedDetail.getPrice());
+                orderDetail.setQuantity(archivedDetail.getQuantity());
+                orderDetails.add(orderDetail);
             }
         }
+        order.setOrderDetails(orderDetails);
+        return order;
+    }
 
-        this.orderRepository.deleteById(id);
+    @CacheEvict(cacheNames = CacheConfig.ORDER_HISTORY_CACHE, allEntries = true)
+    @Transactional
+    public void deleteOrderById(long id) {
+        // order đã archive chỉ để xem (fetchOrderById), không xóa: sales_daily / thống kê đã tính phần archive
+        if (!this.orderRepository.existsById(id) && this.archivedOrderRepository.existsById(id)) {
+            throw new IllegalStateException("Order " + id + " is archived and cannot be deleted");
+        }
+        this.deleteOrdersByIds(List.of(id));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ORDER_HISTORY_CACHE, allEntries = true)
+    @Transactional
     public void updateOrder(Order order) {
-        Optional<Order> orderOptional = this.fetchOrderById(order.getId());
+        // order đã archive thì không sửa được
+        Optional<Order> orderOptional = this.orderRepository.findById(order.getId());
         if (orderOptional.isPresent()) {
             Order currentOrder = orderOptional.get();
+            if (!Objects.equals(currentOrder.getStatus(), order.getStatus())) {
+                this.salesRollupService.onOrdersChanging(List.of(currentOrder.getId()), order.getStatus());
+            }
             currentOrder.setStatus(order.getStatus());
             this.orderRepository.save(currentOrder);
         }
     }
 
+    /*
+     * xóa nhiều order trong 1 transaction:
+     * 1 câu DELETE cho order_detail + 1 câu DELETE cho orders
+     */
+    @CacheEvict(cacheNames = CacheConfig.ORDER_HISTORY_CACHE, allEntries = true)
+    @Transactional
+    public BulkOrderResultDTO deleteOrdersByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new BulkOrderResultDTO(0, 0);
+        }
+        // 1 câu GROUP BY trên các id bị xóa, thống kê chỉ cộng trừ phần này (không đếm lại toàn bảng)
+        List<Object[]> affected = this.orderRepository.countAndSumByStatusForIds(ids);
+        this.salesRollupService.onOrdersChanging(ids, null);
+        int deletedDetails = this.orderDetailRepository.deleteByOrderIds(ids);
+        int deletedOrders = this.orderRepository.deleteByIds(ids);
+        this.dashboardStatsService.onOrdersBulkChangedAfterCommit(affected, null);
+        return new BulkOrderResultDTO(deletedOrders, deletedDetails);
+    }
+
+    /*
+     * đổi status nhiều order bằng 1 câu UPDATE, trả về số order đã thay đổi
+     * status phải thuộc Order.STATUSES
+     */
+    @CacheEvict(cacheNames = CacheConfig.ORDER_HISTORY_CACHE, allEntries = true)
+    @Transactional
+    public int updateOrdersStatus(List<Long> ids, String status) {
+        if (status == null || !Order.STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Unknown order status: " + status);
+        }
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> affected = this.orderRepository.countAndSumByStatusForIds(ids);
+        this.salesRollupService.onOrdersChanging(ids, status);
+        int updated = this.orderRepository.updateStatusByIds(ids, status, LocalDateTime.now());
+        this.dashboardStatsService.onOrdersBulkChangedAfterCommit(affected, status);
+        return updated;
+    }
+
     public List<Order> fetchOrderByUser(User user) {
         return this.orderRepository.findByUser(user);
     }
+
+    /*
+     * lịch sử mua hàng phân trang theo keyset (cursor = id order cuối của trang trước)
+     * trang đầu (cursor == null) được cache theo user, xóa khi user đặt đơn mới
+     */
+    @Cacheable(cacheNames = CacheConfig.ORDER_HISTORY_CACHE, key = "#userId", condition = "#cursor == null")
+    public Slice<OrderHistoryDTO> fetchOrderHistory(long userId, Long cursor, int size) {
+        long before = cursor == null ? Long.MAX_VALUE : cursor;
+
+        // lấy dư 1 phần tử để biết còn trang sau hay không
+        // order cũ có thể đã nằm ở bảng archive: lấy từ cả 2 bảng rồi trộn theo id giảm dần
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<OrderHistoryDTO> liveHeaders = this.orderRepository.findHistoryByUserId(userId, before, limit);
+        List<OrderHistoryDTO> archivedHeaders = this.archivedOrderRepository.findHistoryByUserId(
+                userId, before, limit);
+
+        List<OrderHistoryDTO> headers = new ArrayList<>(liveHeaders.size() + archivedHeaders.size());
+        headers.addAll(liveHeaders);
+        headers.addAll(archivedHeaders);
+        headers.sort((a, b) -> Long.compare(b.getId(), a.getId()));
+
+        boolean hasNext = headers.size() > size;
+        if (hasNext) {
+            headers = headers.subList(0, size);
+        }
+
+        Pageable pageable = PageRequest.of(0, size);
+        if (headers.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+
+        Map<Long, List<OrderLineDTO>> linesByOrder = new LinkedHashMap<>();
+        for (OrderHistoryDTO header : headers) {
+            linesByOrder.put(header.getId(), new ArrayList<>());
+        }
+        List<Long> liveIds = new ArrayList<>();
+        List<Long> archivedIds = new ArrayList<>();
+        for (OrderHistoryDTO header : liveHeaders) {
+            if (linesByOrder.containsKey(header.getId())) {
+                liveIds.add(header.getId());
+            }
+        }
+        for (OrderHistoryDTO header : archivedHeaders) {
+            if (linesByOrder.containsKey(header.getId())) {
+                archivedIds.add(header.getId());
+            }
+        }
+        if (!liveIds.isEmpty()) {
+            for (OrderLineDTO line : this.orderDetailRepository.findLinesByOrderIds(liveIds)) {
+                linesByOrder.get(line.getOrderId()).add(line);
+            }
+        }
+        if (!archivedIds.isEmpty()) {
+            for (OrderLineDTO line : this.archivedOrderRepository.findLinesByOrderIds(archivedIds)) {
+                linesByOrder.get(line.getOrderId()).add(line);
+            }
+        }
+
+        List<OrderHistoryDTO> orders = new ArrayList<>(headers.size());
+        for (OrderHistoryDTO header : headers) {
+            orders.add(header.withOrderDetails(linesByOrder.get(header.getId())));
+        }
+        return new SliceImpl<>(List.copyOf(orders), pageable, hasNext);
+    }
 }
\ No newline at end of file
@@ -1,21 +1,34 @@
 package vn.hoidanit.laptopshop.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.servlet.http.HttpSession;
+import vn.hoidanit.laptopshop.config.CacheConfig;
 import vn.hoidanit.laptopshop.domain.Cart;
 import vn.hoidanit.laptopshop.domain.CartDetail;
 import vn.hoidanit.laptopshop.domain.Order;
 import vn.hoidanit.laptopshop.domain.OrderDetail;
 import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.Product_;
 import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.domain.dto.CartItemStateDTO;
+import vn.hoidanit.laptopshop.domain.dto.CartLineDTO;
+import vn.hoidanit.laptopshop.domain.dto.CartViewDTO;
 import vn.hoidanit.laptopshop.domain.dto.ProductCriteriaDTO;
+import vn.hoidanit.laptopshop.domain.dto.ProductPageDTO;
+import vn.hoidanit.laptopshop.domain.dto.ProductSummaryDTO;
 import vn.hoidanit.laptopshop.repository.CartDetailRepository;
 import vn.hoidanit.laptopshop.repository.CartRepository;
 import vn.hoidanit.laptopshop.repository.OrderDetailRepository;
@@ -31,6 +44,7 @@ public class ProductService {
     private final UserService userService;
     private final OrderRepository orderRepository;
     private final OrderDetailRepository orderDetailRepository;
+    private final LiveMetricsService liveMetricsService;
 
     public ProductService(
             ProductRepository productRepository,
@@ -38,13 +52,15 @@ public class ProductService {
             CartDetailRepository cartDetailRepository,
             UserService userService,
             OrderRepository orderRepository,
-            OrderDetailRepository orderDetailRepository) {
+            OrderDetailRepository orderDetailRepository,
+            LiveMetricsService liveMetricsService) {
         this.productRepository = productRepository;
         this.cartRepository = cartRepository;
         this.cartDetailRepository = cartDetailRepository;
         this.userService = userService;
         this.orderRepository = orderRepository;
         this.orderDetailRepository = orderDetailRepository;
+        this.liveMetricsService = liveMetricsService;
     }
 
     public Product createProduct(Product pr) {
@@ -62,6 +78,59 @@ public class ProductService {
             return this.productRepository.findAll(page);
         }
 
+        return this.productRepository.findAll(this.buildCriteriaSpecification(productCriteriaDTO), page);
+    }
+
+    /*
+     * phân trang keyset cho API: không có câu count, không OFFSET
+     * cursor = base64url("id") hoặc base64url("price:id") khi sort theo giá
+     */
+    public ProductPageDTO fetchProductPage(ProductCriteriaDTO productCriteriaDTO, String cursor, int size) {
+        String sort = productCriteriaDTO.getSort() != null && productCriteriaDTO.getSort().isPresent()
+                ? productCriteriaDTO.getSort().get()
+                : "";
+        boolean byPrice = sort.equals("gia-tang-dan") || sort.equals("gia-giam-dan");
+        boolean ascending = !sort.equals("gia-giam-dan");
+
+        Specification<Product> spec = this.buildCriteriaSpecification(productCriteriaDTO);
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            if (byPrice) {
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                spec = spec.and(ProductSpecs.afterPriceAndId(Double.parseDouble(parts[0]),
+                        Long.parseLong(parts[1]), ascending));
+            } else {
+                spec = spec.and(ProductSpecs.afterId(Long.parseLong(parts[parts.length - 1])));
+            }
+        }
+
+        Sort order = byPrice
+                ? Sort.by(ascending ? Sort.Order.asc(Product_.PRICE) : Sort.Order.desc(Product_.PRICE),
+                        Sort.Order.asc(Product_.ID))
+                : Sort.by(Product_.ID).ascending();
+        // constructor projection: không load detail_desc (@Lob) của cả trang
+        List<ProductSummaryDTO> rows = this.productRepository.findSummaries(spec, order, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<ProductSummaryDTO> products = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductSummaryDTO last = products.get(products.size() - 1);
+            nextCursor = encodeCursor(byPrice ? last.getPrice() + ":" + last.getId() : String.valueOf(last.getId()));
+        }
+        return new ProductPageDTO(products, nextCursor);
+    }
+
+    public static ProductSummaryDTO toSummary(Product product) {
+        return new ProductSummaryDTO(product.getId(), product.getName(), product.getPrice(), product.getImage(),
+                product.getImageWidths(), product.getShortDesc(), product.getFactory(), product.getTarget(),
+                product.getQuantity(), product.getSold());
+    }
+
+    private Specification<Product> buildCriteriaSpecification(ProductCriteriaDTO productCriteriaDTO) {
         Specification<Product> combinedSpec = Specification.where(null);
 
         if (productCriteriaDTO.getTarget() != null && productCriteriaDTO.getTarget().isPresent()) {
@@ -78,7 +147,16 @@ public class ProductService {
             combinedSpec = combinedSpec.and(currentSpecs);
         }
 
-        return this.productRepository.findAll(combinedSpec, page);
+        return combinedSpec;
+    }
+
+    private static String encodeCursor(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        // base64 hoặc số sai -> IllegalArgumentException (NumberFormatException là lớp con)
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
     }
 
     // case 6
@@ -125,6 +203,9 @@ public class ProductService {
         this.productRepository.deleteById(id);
     }
 
+    // cart sum nằm trong principal được cache lúc đăng nhập
+    @CacheEvict(cacheNames = CacheConfig.USER_PRINCIPAL_CACHE, key = "#email.toLowerCase()",
+            condition = "#email != null")
     public void handleAddProductToCart(String email, long productId, HttpSession session, long quantity) {
 
         User user = this.userService.getUserByEmail(email);
@@ -168,16 +249,48 @@ public class ProductService {
                     oldDetail.setQuantity(oldDetail.getQuantity() + quantity);
                     this.cartDetailRepository.save(oldDetail);
                 }
+                this.liveMetricsService.recordAddToCart();
 
             }
 
         }
     }
 
+    /*
+     * thêm vào giỏ cho AJAX: sản phẩm đã có trong giỏ thì chỉ 1 câu UPDATE số lượng,
+     * dòng mới thì đi đường cũ (tạo cart/cart_detail, tăng sum)
+     * trả null nếu product không tồn tại
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_PRINCIPAL_CACHE, key = "#email.toLowerCase()",
+            condition = "#email != null")
+    public CartItemStateDTO addProductToCart(long userId, String email, long productId, long quantity,
+            HttpSession session) {
+        if (this.cartDetailRepository.incrementQuantity(userId, productId, quantity) == 0) {
+            this.handleAddProductToCart(email, productId, session, quantity);
+        } else {
+            this.liveMetricsService.recordAddToCart();
+        }
+
+        CartItemStateDTO state = this.cartDetailRepository.findItemState(userId, productId);
+        if (state != null && session != null) {
+            session.setAttribute("sum", state.getCartSum());
+        }
+        return state;
+    }
+
     public Cart fetchByUser(User user) {
         return this.cartRepository.findByUser(user);
     }
 
+    public CartViewDTO fetchCartViewByUser(User user) {
+        List<CartLineDTO> lines = this.cartDetailRepository.findCartLinesByUserId(user.getId());
+        return lines.isEmpty() ? CartViewDTO.empty() : new CartViewDTO(lines);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.USER_PRINCIPAL_CACHE,
+            key = "#session.getAttribute('email').toString().toLowerCase()",
+            condition = "#session.getAttribute('email') != null")
     public void handleRemoveCartDetail(long cartDetailId, HttpSession session) {
         Optional<CartDetail> cartDetailOptional = this.cartDetailRepository.findById(cartDetailId);
         if (cartDetailOptional.isPresent()) {
@@ -213,6 +326,12 @@ public class ProductService {
         }
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.ORDER_HISTORY_CACHE, key = "#user.id"),
+            @CacheEvict(cacheNames = CacheConfig.USER_PRINCIPAL_CACHE,
+                    key = "#session.getAttribute('email').toString().toLowerCase()",
+                    condition = "#session.getAttribute('email') != null")
+    })
     public void handlePlaceOrder(
             User user, HttpSession session,
             String receiverName, String receiverAddress, String receiverPhone) {
@@ -238,6 +357,7 @@ public class ProductService {
                 }
                 order.setTotalPrice(sum);
                 order = this.orderRepository.save(order);
+                this.liveMetricsService.recordOrder(sum);
 
                 // create orderDetail
 
@@ -0,0 +1,75 @@
+package vn.hoidanit.laptopshop.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.SalesDaily;
+import vn.hoidanit.laptopshop.domain.dto.SalesReportRowDTO;
+import vn.hoidanit.laptopshop.repository.ProductRepository;
+import vn.hoidanit.laptopshop.repository.SalesDailyRepository;
+
+/*
+ * báo cáo doanh số, chỉ đọc từ bảng tổng hợp sales_daily (không quét order_detail)
+ */
+@Service
+public class SalesReportService {
+
+    private final SalesDailyRepository salesDailyRepository;
+    private final ProductRepository productRepository;
+
+    public SalesReportService(
+            SalesDailyRepository salesDailyRepository,
+            ProductRepository productRepository) {
+        this.salesDailyRepository = salesDailyRepository;
+        this.productRepository = productRepository;
+    }
+
+    public static boolean isValidDimension(String dimension) {
+        return SalesDaily.DIMENSION_PRODUCT.equals(dimension)
+                || SalesDaily.DIMENSION_FACTORY.equals(dimension)
+                || SalesDaily.DIMENSION_TARGET.equals(dimension);
+    }
+
+    /*
+     * tổng doanh số theo product / factory / target trong khoảng ngày [from, to]
+     */
+    public List<SalesReportRowDTO> fetchTotalsByDimension(String dimension, LocalDate from, LocalDate to) {
+        List<SalesReportRowDTO> rows = this.salesDailyRepository.sumByKey(dimension, from, to);
+        if (!SalesDaily.DIMENSION_PRODUCT.equals(dimension) || rows.isEmpty()) {
+            return rows;
+        }
+
+        // key là product id -> lấy tên product bằng 1 query
+        List<Long> productIds = new ArrayList<>(rows.size());
+        for (SalesReportRowDTO row : rows) {
+            try {
+                productIds.add(Long.parseLong(row.getKey()));
+            } catch (NumberFormatException e) {
+                // bỏ qua
+            }
+        }
+        Map<String, String> names = new HashMap<>();
+        for (Product product : this.productRepository.findAllById(productIds)) {
+            names.put(String.valueOf(product.getId()), product.getName());
+        }
+
+        List<SalesReportRowDTO> labeled = new ArrayList<>(rows.size());
+        for (SalesReportRowDTO row : rows) {
+            labeled.add(row.withLabel(names.getOrDefault(row.getKey(), "#" + row.getKey())));
+        }
+        return labeled;
+    }
+
+    /*
+     * tổng doanh số theo từng ngày trong khoảng [from, to]
+     */
+    public List<SalesReportRowDTO> fetchTotalsByDay(LocalDate from, LocalDate to) {
+        return this.salesDailyRepository.sumByDay(SalesDaily.DIMENSION_PRODUCT, from, to);
+    }
+}
@@ -0,0 +1,278 @@
+package vn.hoidanit.laptopshop.service;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vn.hoidanit.laptopshop.domain.Order;
+import vn.hoidanit.laptopshop.domain.RollupWatermark;
+import vn.hoidanit.laptopshop.domain.SalesDaily;
+import vn.hoidanit.laptopshop.repository.ArchivedOrderRepository;
+import vn.hoidanit.laptopshop.repository.OrderDetailRepository;
+import vn.hoidanit.laptopshop.repository.OrderRepository;
+import vn.hoidanit.laptopshop.repository.RollupWatermarkRepository;
+import vn.hoidanit.laptopshop.repository.SalesDailyRepository;
+
+/*
+ * job tổng hợp doanh số theo ngày từ order_detail vào sales_daily
+ * - watermark = id order_detail lớn nhất đã xử lý, mỗi dòng chỉ được cộng 1 lần
+ * - cộng dồn + cập nhật watermark trong cùng 1 transaction (watermark bị lock FOR UPDATE)
+ * - không xử lý các dòng quá mới (commit-lag) để không bỏ sót id commit trễ
+ * - chỉ tính order chưa CANCEL và có created_at; order tạo trước khi có cột created_at được gán ngày
+ *   (backfillBatch) rồi mới tính
+ *   order bị xóa / đổi status sau khi đã rollup thì trừ (hoặc cộng lại) qua onOrdersChanging
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupService.class);
+    // v2: bản đầu tính cả order CANCEL và dồn order không có created_at vào ngày chạy job
+    // -> watermark mới, lần chạy đầu dựng lại sales_daily từ đầu (xem rebuild)
+    static final String WATERMARK_NAME = "sales_daily_v2";
+
+    private final OrderRepository orderRepository;
+    private final OrderDetailRepository orderDetailRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final SalesDailyRepository salesDailyRepository;
+    private final RollupWatermarkRepository rollupWatermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration commitLag;
+
+    public SalesRollupService(
+            OrderRepository orderRepository,
+            OrderDetailRepository orderDetailRepository,
+            ArchivedOrderRepository archivedOrderRepository,
+            SalesDailyRepository salesDailyRepository,
+            RollupWatermarkRepository rollupWatermarkRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${laptopshop.rollup.batch-size:1000}") int batchSize,
+            @Value("${laptopshop.rollup.max-batches-per-run:50}") int maxBatchesPerRun,
+            @Value("${laptopshop.rollup.commit-lag:PT1M}") Duration commitLag) {
+        this.orderRepository = orderRepository;
+        this.orderDetailRepository = orderDetailRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.salesDailyRepository = salesDailyRepository;
+        this.rollupWatermarkRepository = rollupWatermarkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.commitLag = commitLag;
+    }
+
+    @Scheduled(fixedDelayString = "${laptopshop.rollup.interval:PT5M}")
+    public void rollup() {
+        int backfilled = 0;
+        for (int i = 0; i < this.maxBatchesPerRun; i++) {
+            Integer count = this.transactionTemplate.execute(status -> this.backfillBatch());
+            if (count == null || count == 0) {
+                break;
+            }
+            backfilled += count;
+        }
+        if (backfilled > 0) {
+            log.info("Backfilled created_at for {} legacy orders", backfilled);
+        }
+
+        int total = 0;
+        for (int i = 0; i < this.maxBatchesPerRun; i++) {
+            Integer processed = this.transactionTemplate.execute(status -> this.rollupBatch());
+            if (processed == null || processed == 0) {
+                break;
+            }
+            total += processed;
+        }
+        if (total > 0) {
+            log.info("Rolled up {} order_detail rows into sales_daily", total);
+        }
+    }
+
+    // trả về số dòng order_detail đã xử lý trong batch này
+    private int rollupBatch() {
+        RollupWatermark watermark = this.rollupWatermarkRepository.findForUpdate(WATERMARK_NAME)
+                .orElseGet(this::rebuild);
+
+        List<Object[]> rows = this.orderDetailRepository.findRollupRowsAfter(
+                watermark.getLastId(), PageRequest.of(0, this.batchSize));
+
+        LocalDateTime notAfter = LocalDateTime.now().minus(this.commitLag);
+        Map<RollupKey, Totals> totals = new HashMap<>();
+        long lastId = watermark.getLastId();
+        int processed = 0;
+        for (Object[] row : rows) {
+            LocalDateTime createdAt = (LocalDateTime) row[6];
+            if (createdAt != null && createdAt.isAfter(notAfter)) {
+                // dừng lại, các dòng sau để lần chạy tới
+                break;
+            }
+            if (isCounted(row)) {
+                addRow(totals, row, 1);
+            }
+            lastId = (Long) row[0];
+            processed++;
+        }
+
+        if (processed == 0) {
+            return 0;
+        }
+
+        this.upsertTotals(totals);
+        watermark.setLastId(lastId);
+        this.rollupWatermarkRepository.save(watermark);
+        return processed;
+    }
+
+    /*
+     * order tạo trước khi có cột created_at: gán created_at = updated_at (không có thì lúc chạy job),
+     * không coi là order cũ (job archive) và không bỏ khỏi báo cáo
+     * - lùi commit-lag để rollupBatch không phải dừng chờ các dòng vừa có ngày
+     * - dòng đã qua watermark lúc chưa có ngày thì chưa được tính -> cộng ngay trong transaction này
+     *   (watermark bị lock nên không chạy xen với rollupBatch / onOrdersChanging)
+     */
+    private int backfillBatch() {
+        RollupWatermark watermark = this.rollupWatermarkRepository.findForUpdate(WATERMARK_NAME)
+                .orElseGet(this::rebuild);
+        List<Long> ids = this.orderRepository.findIdsWithoutCreatedAt(PageRequest.of(0, this.batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        this.orderRepository.backfillCreatedAt(ids, LocalDateTime.now().minus(this.commitLag));
+
+        Map<RollupKey, Totals> totals = new HashMap<>();
+        for (Object[] row : this.orderDetailRepository.findRolledUpRowsByOrderIds(ids, watermark.getLastId())) {
+            if (isCounted(row)) {
+                addRow(totals, row, 1);
+            }
+        }
+        this.upsertTotals(totals);
+        return ids.size();
+    }
+
+    /*
+     * chưa có watermark: xóa sales_daily, cộng lại phần order đã archive bằng 1 câu GROUP BY,
+     * phần order_detail còn ở bảng nóng để các batch bình thường xử lý từ id 0
+     * (job archive chỉ chuyển order đã rollup, nên không có dòng nào bị tính 2 lần hoặc bị sót)
+     */
+    private RollupWatermark rebuild() {
+        RollupWatermark watermark = new RollupWatermark();
+        watermark.setName(WATERMARK_NAME);
+        watermark.setLastId(0);
+        watermark = this.rollupWatermarkRepository.saveAndFlush(watermark);
+
+        this.salesDailyRepository.deleteAllInBatch();
+        Map<RollupKey, Totals> totals = new HashMap<>();
+        for (Object[] row : this.archivedOrderRepository.sumRollupRows()) {
+            LocalDate day = row[3] instanceof Date date ? date.toLocalDate() : (LocalDate) row[3];
+            long quantity = ((Number) row[4]).longValue();
+            double revenue = ((Number) row[5]).doubleValue();
+            long orderLines = ((Number) row[6]).longValue();
+
+            totals.computeIfAbsent(new RollupKey(SalesDaily.DIMENSION_PRODUCT, day, String.valueOf(row[0])),
+                    k -> new Totals()).add(quantity, revenue, orderLines);
+            totals.computeIfAbsent(new RollupKey(SalesDaily.DIMENSION_FACTORY, day, keyOf(row[1])),
+                    k -> new Totals()).add(quantity, revenue, orderLines);
+            totals.computeIfAbsent(new RollupKey(SalesDaily.DIMENSION_TARGET, day, keyOf(row[2])),
+                    k -> new Totals()).add(quantity, revenue, orderLines);
+        }
+        this.upsertTotals(totals);
+        log.info("Rebuilding sales_daily: {} rows from archived orders, live order_detail from id 0", totals.size());
+        return watermark;
+    }
+
+    /*
+     * gọi trong transaction của thao tác xóa / đổi status, TRƯỚC câu UPDATE/DELETE
+     * newStatus = null nghĩa là các order bị xóa
+     * watermark bị lock FOR UPDATE nên không chạy xen với rollupBatch: dòng nào đã rollup thì sửa ở đây,
+     * dòng chưa rollup thì batch sau sẽ đọc status mới
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onOrdersChanging(Collection<Long> orderIds, String newStatus) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        RollupWatermark watermark = this.rollupWatermarkRepository.findForUpdate(WATERMARK_NAME).orElse(null);
+        if (watermark == null || watermark.getLastId() == 0) {
+            return;
+        }
+
+        boolean countedAfter = newStatus != null && !Order.STATUS_CANCEL.equals(newStatus);
+        Map<RollupKey, Totals> totals = new HashMap<>();
+        for (Object[] row : this.orderDetailRepository.findRolledUpRowsByOrderIds(orderIds,
+                watermark.getLastId())) {
+            if (row[6] == null) {
+                continue;
+            }
+            boolean countedBefore = isCounted(row);
+            if (countedBefore != countedAfter) {
+                addRow(totals, row, countedAfter ? 1 : -1);
+            }
+        }
+        this.upsertTotals(totals);
+    }
+
+    private void upsertTotals(Map<RollupKey, Totals> totals) {
+        for (Map.Entry<RollupKey, Totals> entry : totals.entrySet()) {
+            RollupKey key = entry.getKey();
+            Totals value = entry.getValue();
+            this.salesDailyRepository.upsert(key.dimension(), key.day(), key.dimensionKey(),
+                    value.quantity, value.revenue, value.orderLines);
+        }
+    }
+
+    // row: [id, quantity, price, product id, factory, target, order created_at, order status]
+    private static boolean isCounted(Object[] row) {
+        return row[6] != null && !Order.STATUS_CANCEL.equals(row[7]);
+    }
+
+    // sign = 1: cộng vào, -1: trừ ra
+    private static void addRow(Map<RollupKey, Totals> totals, Object[] row, int sign) {
+        long quantity = (Long) row[1];
+        double revenue = (Double) row[2] * quantity;
+        LocalDate day = ((LocalDateTime) row[6]).toLocalDate();
+
+        totals.computeIfAbsent(new RollupKey(SalesDaily.DIMENSION_PRODUCT, day, String.valueOf(row[3])),
+                k -> new Totals()).add(sign * quantity, sign * revenue, sign);
+        totals.computeIfAbsent(new RollupKey(SalesDaily.DIMENSION_FACTORY, day, keyOf(row[4])),
+                k -> new Totals()).add(sign * quantity, sign * revenue, sign);
+        totals.computeIfAbsent(new RollupKey(SalesDaily.DIMENSION_TARGET, day, keyOf(row[5])),
+                k -> new Totals()).add(sign * quantity, sign * revenue, sign);
+    }
+
+    private static String keyOf(Object value) {
+        return Objects.toString(value, "UNKNOWN");
+    }
+
+    private record RollupKey(String dimension, LocalDate day, String dimensionKey) {
+    }
+
+    private static final class Totals {
+        private long quantity;
+        private double revenue;
+        private long orderLines;
+
+        private void add(long quantity, double revenue, long orderLines) {
+            this.quantity += quantity;
+            this.revenue += revenue;
+            this.orderLines += orderLines;
+        }
+    }
+}
@@ -1,50 +1,117 @@
 package vn.hoidanit.laptopshop.service;
 
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import jakarta.servlet.ServletContext;
+import vn.hoidanit.laptopshop.service.image.ImageVariantService;
 
+/*
+ * lưu file upload theo nội dung (content-addressed), nằm ngoài thư mục webapp:
+ *   {upload-root}/{targetFolder}/ab/cd/{sha256}.{ext}
+ * - stream thẳng xuống file tạm bằng Files.copy, hash tính trong lúc copy -> heap không phụ thuộc kích thước file
+ * - 2 ảnh giống hệt nhau chỉ lưu 1 lần
+ * - giá trị trả về (lưu vào DB) là đường dẫn tương đối trong targetFolder, vd "ab/cd/<hash>.jpg",
+ *   được serve qua /images/{targetFolder}/** (xem WebMvcConfig)
+ * - lưu xong thì đưa ảnh vào hàng đợi sinh variant (ImageVariantService)
+ */
 @Service
 public class UploadService {
-    private final ServletContext servletContext;
 
-    public UploadService(ServletContext servletContext) {
-        this.servletContext = servletContext;
+    private static final Logger log = LoggerFactory.getLogger(UploadService.class);
+
+    private final Path rootPath;
+    private final ImageVariantService imageVariantService;
+
+    public UploadService(@Value("${laptopshop.upload.root:./data/uploads}") String uploadRoot,
+            ImageVariantService imageVariantService) {
+        this.rootPath = Paths.get(uploadRoot).toAbsolutePath().normalize();
+        this.imageVariantService = imageVariantService;
     }
 
     public String handleSaveUploadFile(MultipartFile file, String targetFolder) {
         // don't upload file
-        if(file.isEmpty()){
+        if (file.isEmpty()) {
             return "";
         }
 
-        // relative path: absolute path
-        String rootPath = this.servletContext.getRealPath("/resources/images");
-        String finalName = "";
+        Path folder = this.rootPath.resolve(targetFolder).normalize();
+        if (!folder.startsWith(this.rootPath)) {
+            throw new IllegalArgumentException("Invalid upload folder: " + targetFolder);
+        }
+
+        Path temp = null;
         try {
-            byte[] bytes;
-            bytes = file.getBytes();
-
-            File dir = new File(rootPath + File.separator + targetFolder);
-            if (!dir.exists())
-                dir.mkdirs();
-            // Create the file on server
-            finalName = System.currentTimeMillis() + "-" + file.getOriginalFilename();
-            File serverFile = new File(dir.getAbsolutePath() + File.separator + finalName);
-
-            BufferedOutputStream stream = new BufferedOutputStream(
-                    new FileOutputStream(serverFile));
-            stream.write(bytes);
-            stream.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+            Path tempDir = this.rootPath.resolve(".tmp");
+            Files.createDirectories(tempDir);
+            temp = Files.createTempFile(tempDir, "upload-", ".part");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            String relative = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash
+                    + extensionOf(file.getOriginalFilename());
+            Path target = folder.resolve(relative);
+            Files.createDirectories(target.getParent());
+
+            if (Files.exists(target)) {
+                // đã có file cùng nội dung
+                Files.deleteIfExists(temp);
+            } else {
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // upload song song cùng nội dung
+                    Files.deleteIfExists(temp);
+                }
+            }
+            this.imageVariantService.generate(targetFolder, relative);
+            return relative;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.error("Cannot save upload file {}", file.getOriginalFilename(), e);
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // bỏ qua
+                }
+            }
+            return "";
+        }
+    }
+
+    public Path getRootPath() {
+        return this.rootPath;
+    }
+
+    // ".jpg", ".png"... chỉ giữ ký tự an toàn
+    private static String extensionOf(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0 || dot == filename.length() - 1) {
+            return "";
         }
-        return finalName;
+        String ext = filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return ext.matches("[a-z0-9]{1,5}") ? "." + ext : "";
     }
 }
@@ -0,0 +1,119 @@
+package vn.hoidanit.laptopshop.service;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import vn.hoidanit.laptopshop.domain.dto.UserPrincipalDTO;
+
+/*
+ * principal của spring security, mang sẵn id, fullName, avatar, role, cart sum
+ * để CustomSuccessHandler không phải query lại user
+ * (tạo mới mỗi lần đăng nhập vì password sẽ bị xóa sau khi xác thực)
+ */
+public class UserPrincipal implements UserDetails, CredentialsContainer {
+
+    // được serialize vào session (JDBC / mmap): cố định để session cũ vẫn đọc được sau khi deploy
+    private static final long serialVersionUID = 1L;
+
+    private final long id;
+    private final String email;
+    private String password;
+    private final String fullName;
+    private final String avatar;
+    private final int cartSum;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public UserPrincipal(UserPrincipalDTO user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.password = user.getPassword();
+        this.fullName = user.getFullName();
+        this.avatar = user.getAvatar();
+        this.cartSum = user.getCartSum();
+        this.authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRoleName()));
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getAvatar() {
+        return avatar;
+    }
+
+    public int getCartSum() {
+        return cartSum;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+
+    // session registry (maximumSessions) so sánh principal theo username
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof UserPrincipal other) {
+            return this.email.equals(other.email);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.email.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal [id=" + id + ", email=" + email + "]";
+    }
+}
@@ -0,0 +1,168 @@
+package vn.hoidanit.laptopshop.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.domain.UserSearchGram;
+import vn.hoidanit.laptopshop.domain.dto.UserSearchResultDTO;
+import vn.hoidanit.laptopshop.domain.dto.UserSummaryDTO;
+import vn.hoidanit.laptopshop.repository.UserRepository;
+import vn.hoidanit.laptopshop.repository.UserSearchGramRepository;
+
+/*
+ * tìm user cho trang admin theo email / full name / phone
+ * - từ khóa < 3 ký tự: tìm theo prefix (like 'x%'), dùng index thường của cột
+ * - từ khóa >= 3 ký tự: lấy user có đủ các 3-gram của từ khóa trong user_search_grams,
+ *   sau đó kiểm tra lại bằng contains (gram khớp chưa chắc đoạn liên tục khớp)
+ * - luôn phân trang keyset theo id giảm dần và trả projection thay vì entity User
+ */
+@Service
+public class UserSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchService.class);
+    private static final int GRAM = 3;
+    private static final int BACKFILL_BATCH = 500;
+
+    private final UserRepository userRepository;
+    private final UserSearchGramRepository userSearchGramRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserSearchService(UserRepository userRepository,
+            UserSearchGramRepository userSearchGramRepository,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userSearchGramRepository = userSearchGramRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public UserSearchResultDTO search(String keyword, Long cursor, int size) {
+        long before = cursor == null ? Long.MAX_VALUE : cursor;
+        String term = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        if (term.length() < GRAM) {
+            List<UserSummaryDTO> rows = term.isEmpty()
+                    ? this.userRepository.findSummariesBefore(before, limit)
+                    : this.userRepository.findSummariesByPrefix(escapeLike(term) + "%", before, limit);
+            return toResult(rows, size);
+        }
+
+        Set<String> grams = grams(term);
+        List<Long> candidates = this.userSearchGramRepository.findUserIdsByGrams(
+                grams, grams.size(), before, limit);
+        boolean hasNext = candidates.size() > size;
+        if (hasNext) {
+            candidates = candidates.subList(0, size);
+        }
+        if (candidates.isEmpty()) {
+            return new UserSearchResultDTO(List.of(), null);
+        }
+
+        List<UserSummaryDTO> users = new ArrayList<>();
+        for (UserSummaryDTO user : this.userRepository.findSummariesByIds(candidates)) {
+            if (contains(user.getEmail(), term) || contains(user.getFullName(), term)
+                    || contains(user.getPhone(), term)) {
+                users.add(user);
+            }
+        }
+        // cursor là ứng viên cuối cùng đã xét, không phải user cuối được hiển thị
+        return new UserSearchResultDTO(users, hasNext ? candidates.get(candidates.size() - 1) : null);
+    }
+
+    @Transactional
+    public void index(User user) {
+        this.index(user.getId(), List.of(nullToEmpty(user.getEmail()), nullToEmpty(user.getFullName()),
+                nullToEmpty(user.getPhone())));
+    }
+
+    @Transactional
+    public void remove(long userId) {
+        this.userSearchGramRepository.deleteByUserId(userId);
+    }
+
+    /*
+     * index lại các user cũ chưa có gram (lần đầu deploy, user thêm thẳng vào DB)
+     * chạy trên thread của scheduler, không chặn lúc khởi động
+     */
+    @Scheduled(fixedDelayString = "${laptopshop.user-search.backfill-interval:PT1H}",
+            initialDelayString = "${laptopshop.user-search.backfill-delay:PT30S}")
+    public void backfill() {
+        long after = 0;
+        int total = 0;
+        while (true) {
+            long from = after;
+            List<UserSummaryDTO> batch = this.transactionTemplate.execute(status -> {
+                List<UserSummaryDTO> users = this.userRepository.findUnindexedAfter(from,
+                        PageRequest.of(0, BACKFILL_BATCH));
+                for (UserSummaryDTO user : users) {
+                    this.index(user.getId(), List.of(nullToEmpty(user.getEmail()),
+                            nullToEmpty(user.getFullName()), nullToEmpty(user.getPhone())));
+                }
+                return users;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            total += batch.size();
+            after = batch.get(batch.size() - 1).getId();
+        }
+        if (total > 0) {
+            log.info("Indexed {} users into user_search_grams", total);
+        }
+    }
+
+    private void index(long userId, Collection<String> fields) {
+        this.userSearchGramRepository.deleteByUserId(userId);
+        Set<String> grams = new LinkedHashSet<>();
+        for (String field : fields) {
+            grams.addAll(grams(field.toLowerCase(Locale.ROOT)));
+        }
+        List<UserSearchGram> rows = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            rows.add(new UserSearchGram(gram, userId));
+        }
+        this.userSearchGramRepository.saveAll(rows);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static UserSearchResultDTO toResult(List<UserSummaryDTO> rows, int size) {
+        if (rows.size() <= size) {
+            return new UserSearchResultDTO(rows, null);
+        }
+        List<UserSummaryDTO> page = rows.subList(0, size);
+        return new UserSearchResultDTO(page, page.get(page.size() - 1).getId());
+    }
+
+    private static boolean contains(String value, String term) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(term);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
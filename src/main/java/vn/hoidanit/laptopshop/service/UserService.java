@@ -1,16 +1,19 @@
 package vn.hoidanit.laptopshop.service;
 
-import java.util.List;
-
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
 
+import vn.hoidanit.laptopshop.config.CacheConfig;
 import vn.hoidanit.laptopshop.domain.Role;
 import vn.hoidanit.laptopshop.domain.User;
 import vn.hoidanit.laptopshop.domain.dto.RegisterDTO;
-import vn.hoidanit.laptopshop.repository.OrderRepository;
-import vn.hoidanit.laptopshop.repository.ProductRepository;
+import vn.hoidanit.laptopshop.domain.dto.UserPrincipalDTO;
+import vn.hoidanit.laptopshop.domain.dto.UserSearchResultDTO;
 import vn.hoidanit.laptopshop.repository.RoleRepository;
 import vn.hoidanit.laptopshop.repository.UserRepository;
 
@@ -19,41 +22,62 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final ProductRepository productRepository;
-    private final OrderRepository orderRepository;
+    private final EmailBloomFilter emailBloomFilter;
+    private final UserSearchService userSearchService;
 
     public UserService(UserRepository userRepository,
             RoleRepository roleRepository,
-            ProductRepository productRepository,
-            OrderRepository orderRepository) {
+            EmailBloomFilter emailBloomFilter,
+            UserSearchService userSearchService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
-        this.productRepository = productRepository;
-        this.orderRepository = orderRepository;
+        this.emailBloomFilter = emailBloomFilter;
+        this.userSearchService = userSearchService;
     }
 
-    public Page<User> getUsers(Pageable page) {
-        return this.userRepository.findAll(page);
+    public UserSearchResultDTO searchUsers(String keyword, Long cursor, int size) {
+        return this.userSearchService.search(keyword, cursor, size);
     }
 
     public boolean checkEmailExist(String email) {
+        // bloom filter trả false -> chắc chắn chưa có, khỏi query
+        if (!this.emailBloomFilter.mightContain(email)) {
+            return false;
+        }
         return this.userRepository.existsByEmail(email);
     }
 
-    public List<User> getUsersByEmail(String email) {
-        return this.userRepository.findByEmailContaining(email);
-    }
-
     public User getUserById(long id) {
         return this.userRepository.findById(id);
     }
 
+    // xóa user và gram trong cùng 1 transaction: không còn gram trỏ tới user đã xóa
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_PRINCIPAL_CACHE, allEntries = true)
     public void deleteUser(long id) {
         this.userRepository.deleteById(id);
+        this.userSearchService.remove(id);
     }
 
+    // lưu user và index gram trong cùng 1 transaction: index lỗi thì user cũng không được lưu
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_PRINCIPAL_CACHE, key = "#user.email.toLowerCase()",
+            condition = "#user.email != null")
     public User handleSaveUser(User user) {
-        User saved = this.userRepository.save(user);
+        User saved;
+        try {
+            // flush ngay để lỗi trùng email nổ ra ở đây, không phải lúc commit
+            saved = this.userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // trùng uk_users_email (vd 2 node cùng nhận đăng ký 1 email): báo lại như lỗi validate
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (message != null && message.contains(User.EMAIL_UNIQUE_INDEX)) {
+                throw new DuplicateKeyException("Email already exists: " + user.getEmail(), e);
+            }
+            throw e;
+        }
+        this.emailBloomFilter.put(saved.getEmail());
+        this.userSearchService.index(saved);
         return saved;
     }
 
@@ -75,15 +99,15 @@ public class UserService {
         return this.userRepository.findByEmail(email);
     }
 
-    public long countUsers() {
-        return this.userRepository.count();
-    }
-
-    public long countProducts() {
-        return this.productRepository.count();
+    @Cacheable(cacheNames = CacheConfig.USER_PRINCIPAL_CACHE, key = "#email.toLowerCase()",
+            unless = "#result == null")
+    public UserPrincipalDTO getUserPrincipalByEmail(String email) {
+        return this.userRepository.findPrincipalByEmail(email);
     }
 
-    public long countOrders() {
-        return this.orderRepository.count();
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_PRINCIPAL_CACHE, key = "#email.toLowerCase()")
+    public void updatePasswordHash(String email, String passwordHash) {
+        this.userRepository.updatePasswordByEmail(email, passwordHash);
     }
 }
@@ -0,0 +1,143 @@
+package vn.hoidanit.laptopshop.service.chat;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import vn.hoidanit.laptopshop.domain.dto.ProductSummaryDTO;
+import vn.hoidanit.laptopshop.repository.ProductRepository;
+
+/*
+ * ngữ cảnh sản phẩm gửi kèm câu hỏi cho chatbot, để backend không cần truy cập DB
+ * - giữ 1 snapshot catalog (top bán chạy) trong bộ nhớ, làm mới định kỳ
+ * - mỗi câu hỏi: ưu tiên sản phẩm có tên/hãng/nhu cầu khớp từ khóa, còn chỗ thì thêm sản phẩm bán chạy
+ * - mỗi sản phẩm 1 dòng ngắn: "#id tên | giá | hãng | nhu cầu | còn N"
+ * - version tăng mỗi khi snapshot đổi nội dung (giá, tồn kho...), câu trả lời cache theo version này
+ */
+@Service
+public class ChatCatalogContext {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatCatalogContext.class);
+    private static final int MAX_DESC_LENGTH = 80;
+
+    private final ProductRepository productRepository;
+    private final int catalogSize;
+    private final int contextProducts;
+
+    private volatile List<Entry> catalog = List.of();
+    private volatile long version;
+
+    public ChatCatalogContext(ProductRepository productRepository,
+            @Value("${laptopshop.chat.catalog-size:200}") int catalogSize,
+            @Value("${laptopshop.chat.context-products:15}") int contextProducts) {
+        this.productRepository = productRepository;
+        this.catalogSize = catalogSize;
+        this.contextProducts = contextProducts;
+    }
+
+    @Scheduled(fixedDelayString = "${laptopshop.chat.catalog-refresh:PT5M}", initialDelay = 0)
+    public void refresh() {
+        try {
+            List<ProductSummaryDTO> products = this.productRepository
+                    .findTopSellingSummaries(PageRequest.of(0, this.catalogSize));
+            List<Entry> entries = new ArrayList<>(products.size());
+            for (ProductSummaryDTO product : products) {
+                // bọc khoảng trắng 2 đầu để so khớp nguyên từ
+                entries.add(new Entry(line(product), " " + normalize(product.getName() + " "
+                        + product.getFactory() + " " + product.getTarget()) + " "));
+            }
+            if (!entries.equals(this.catalog)) {
+                // đổi catalog trước version: ai đọc được version mới thì chắc chắn thấy catalog mới
+                this.catalog = List.copyOf(entries);
+                this.version++;
+            }
+        } catch (RuntimeException e) {
+            // giữ snapshot cũ
+            log.warn("Cannot refresh chat catalog: {}", e.toString());
+        }
+    }
+
+    public long version() {
+        return this.version;
+    }
+
+    public String contextFor(String question) {
+        List<Entry> snapshot = this.catalog;
+        Set<String> words = new LinkedHashSet<>(List.of(normalize(question).split(" ")));
+        words.removeIf(word -> word.length() < 2);
+
+        Set<String> lines = new LinkedHashSet<>();
+        for (Entry entry : snapshot) {
+            if (lines.size() >= this.contextProducts) {
+                break;
+            }
+            for (String word : words) {
+                if (entry.keywords.contains(" " + word + " ")) {
+                    lines.add(entry.line);
+                    break;
+                }
+            }
+        }
+        for (Entry entry : snapshot) {
+            if (lines.size() >= this.contextProducts) {
+                break;
+            }
+            lines.add(entry.line);
+        }
+        return String.join("\n", lines);
+    }
+
+    // chữ thường, bỏ dấu câu, gộp khoảng trắng (giữ dấu tiếng Việt)
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String value = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        return value.replaceAll("[\\p{Punct}\\p{IsPunctuation}]", " ").replaceAll("\\s+", " ").trim();
+    }
+
+    private static String line(ProductSummaryDTO product) {
+        StringBuilder line = new StringBuilder()
+                .append('#').append(product.getId()).append(' ').append(product.getName())
+                .append(" | ").append(String.format(Locale.ROOT, "%,.0f", product.getPrice()).replace(',', '.'))
+                .append("đ | ").append(product.getFactory())
+                .append(" | ").append(product.getTarget())
+                .append(" | còn ").append(product.getQuantity());
+        String desc = product.getShortDesc();
+        if (desc != null && !desc.isBlank()) {
+            line.append(" | ").append(desc.length() > MAX_DESC_LENGTH ? desc.substring(0, MAX_DESC_LENGTH) : desc);
+        }
+        return line.toString();
+    }
+
+    private static final class Entry {
+        private final String line;
+        private final String keywords;
+
+        private Entry(String line, String keywords) {
+            this.line = line;
+            this.keywords = keywords;
+        }
+
+        // keywords lấy từ cùng các cột đã có trong line
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Entry entry && this.line.equals(entry.line);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.line.hashCode();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package vn.hoidanit.laptopshop.service.chat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+ * chatbot gateway: trình duyệt -> server này -> backend chatbot (laptopshop.chat.backend-url)
+ * - gọi backend bằng java.net.http.HttpClient bất đồng bộ, body đọc theo dòng khi dữ liệu tới,
+ *   không giữ thread request trong lúc chờ LLM
+ * - tối đa max-concurrent câu hỏi cùng lúc, vượt thì báo bận ngay (không xếp hàng)
+ * - trả về trình duyệt qua SSE: event "token" ({text}), "done" ({history, cached}), "error" ({message})
+ *   backend trả text/event-stream thì chuyển tiếp từng đoạn, trả JSON {result, history} thì gửi 1 lần
+ * - câu hỏi đầu tiên (chưa có history) được cache theo câu đã chuẩn hóa + version catalog
+ *   (giá / tồn kho đổi thì không dùng lại câu trả lời cũ), chỉ cache câu trả lời:
+ *   history của backend chứa nguyên văn câu hỏi của người hỏi trước nên cache hit trả history rỗng
+ * - gửi kèm "context": danh sách sản phẩm rút gọn (ChatCatalogContext)
+ */
+@Service
+public class ChatGatewayService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatGatewayService.class);
+    private static final String BUSY_MESSAGE = "Chatbot đang bận, vui lòng thử lại sau ít phút!";
+    private static final String ERROR_MESSAGE = "Rất tiếc, đã xảy ra lỗi khi xử lý yêu cầu của bạn!";
+
+    private final ChatCatalogContext catalogContext;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI backendUri;
+    private final Duration responseTimeout;
+    private final long streamTimeoutMillis;
+    private final Semaphore permits;
+    private final Cache<String, String> answers;
+
+    public ChatGatewayService(ChatCatalogContext catalogContext, ObjectMapper objectMapper,
+            @Value("${laptopshop.chat.backend-url:http://localhost:8000/chat}") URI backendUri,
+            @Value("${laptopshop.chat.max-concurrent:8}") int maxConcurrent,
+            @Value("${laptopshop.chat.connect-timeout:PT3S}") Duration connectTimeout,
+            @Value("${laptopshop.chat.response-timeout:PT60S}") Duration responseTimeout,
+            @Value("${laptopshop.chat.stream-timeout:PT2M}") Duration streamTimeout,
+            @Value("${laptopshop.chat.cache-size:1000}") long cacheSize,
+            @Value("${laptopshop.chat.cache-ttl:PT30M}") Duration cacheTtl) {
+        this.catalogContext = catalogContext;
+        this.objectMapper = objectMapper;
+        this.backendUri = backendUri;
+        this.responseTimeout = responseTimeout;
+        this.streamTimeoutMillis = streamTimeout.toMillis();
+        this.permits = new Semaphore(maxConcurrent);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        this.answers = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    public SseEmitter ask(String query, JsonNode history) {
+        SseEmitter emitter = new SseEmitter(this.streamTimeoutMillis);
+        boolean cacheable = history == null || history.isNull() || history.isEmpty();
+        // đọc version trước khi lấy context (xem ChatCatalogContext.refresh)
+        String cacheKey = cacheable
+                ? this.catalogContext.version() + ":" + ChatCatalogContext.normalize(query)
+                : null;
+
+        if (cacheKey != null) {
+            String cached = this.answers.getIfPresent(cacheKey);
+            if (cached != null) {
+                if (send(emitter, "token", Map.of("text", cached))) {
+                    send(emitter, "done", doneBody(null, true));
+                }
+                emitter.complete();
+                return emitter;
+            }
+        }
+
+        if (!this.permits.tryAcquire()) {
+            send(emitter, "error", Map.of("message", BUSY_MESSAGE));
+            emitter.complete();
+            return emitter;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                this.permits.release();
+            }
+        };
+
+        HttpRequest request;
+        try {
+            ObjectNode body = this.objectMapper.createObjectNode();
+            body.put("query", query);
+            body.set("history", cacheable ? this.objectMapper.createArrayNode() : history);
+            body.put("context", this.catalogContext.contextFor(query));
+            request = HttpRequest.newBuilder(this.backendUri)
+                    .timeout(this.responseTimeout)
+                    .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                    .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofString(this.objectMapper.writeValueAsString(body),
+                            StandardCharsets.UTF_8))
+                    .build();
+        } catch (JsonProcessingException e) {
+            release.run();
+            emitter.completeWithError(e);
+            return emitter;
+        }
+
+        CompletableFuture<HttpResponse<Void>> exchange = this.httpClient.sendAsync(request,
+                info -> HttpResponse.BodySubscribers.fromLineSubscriber(
+                        new AnswerSubscriber(emitter, info, cacheKey, release)));
+        exchange.whenComplete((response, ex) -> {
+            if (ex != null) {
+                log.warn("Chat backend call failed: {}", ex.toString());
+                send(emitter, "error", Map.of("message", ERROR_MESSAGE));
+                emitter.complete();
+                release.run();
+            }
+        });
+
+        // trình duyệt đóng tab / timeout: hủy request tới backend, trả permit
+        emitter.onCompletion(() -> {
+            exchange.cancel(true);
+            release.run();
+        });
+        emitter.onTimeout(() -> {
+            exchange.cancel(true);
+            release.run();
+        });
+        emitter.onError(e -> {
+            exchange.cancel(true);
+            release.run();
+        });
+        return emitter;
+    }
+
+    private Map<String, Object> doneBody(JsonNode history, boolean cached) {
+        return Map.of("history", history == null ? this.objectMapper.createArrayNode() : history,
+                "cached", cached);
+    }
+
+    // false nếu client đã ngắt kết nối
+    private boolean send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(event)
+                    .data(this.objectMapper.writeValueAsString(data), MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /*
+     * nhận body của backend theo từng dòng (gọi trên thread của HttpClient khi có dữ liệu)
+     */
+    private final class AnswerSubscriber implements Flow.Subscriber<String> {
+        private final SseEmitter emitter;
+        private final int status;
+        private final boolean streaming;
+        private final String cacheKey;
+        private final Runnable release;
+        private final StringBuilder buffer = new StringBuilder();
+        private JsonNode history;
+        private Flow.Subscription subscription;
+
+        private AnswerSubscriber(SseEmitter emitter, HttpResponse.ResponseInfo info, String cacheKey,
+                Runnable release) {
+            this.emitter = emitter;
+            this.status = info.statusCode();
+            this.streaming = info.headers().firstValue("Content-Type")
+                    .map(type -> type.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE))
+                    .orElse(false);
+            this.cacheKey = cacheKey;
+            this.release = release;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (this.status != 200) {
+                return;
+            }
+            if (!this.streaming) {
+                this.buffer.append(line).append('\n');
+                return;
+            }
+            if (!line.startsWith("data:")) {
+                return;
+            }
+            String payload = line.substring(5).trim();
+            if (payload.isEmpty() || payload.equals("[DONE]")) {
+                return;
+            }
+            String text = payload;
+            try {
+                JsonNode node = ChatGatewayService.this.objectMapper.readTree(payload);
+                if (node.isObject()) {
+                    if (node.has("history")) {
+                        this.history = node.get("history");
+                    }
+                    text = node.hasNonNull("token") ? node.get("token").asText()
+                            : node.hasNonNull("result") ? node.get("result").asText() : "";
+                }
+            } catch (JsonProcessingException e) {
+                // đoạn text thường
+            }
+            if (!text.isEmpty()) {
+                this.buffer.append(text);
+                if (!send(this.emitter, "token", Map.of("text", text))) {
+                    this.subscription.cancel();
+                    this.release.run();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // whenComplete của exchange gửi lỗi cho client
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                if (this.status != 200) {
+                    log.warn("Chat backend answered HTTP {}", this.status);
+                    send(this.emitter, "error", Map.of("message", ERROR_MESSAGE));
+                    return;
+                }
+                String result;
+                if (this.streaming) {
+                    result = this.buffer.toString();
+                } else {
+                    JsonNode node = ChatGatewayService.this.objectMapper.readTree(this.buffer.toString());
+                    result = node.path("result").asText("");
+                    this.history = node.get("history");
+                    send(this.emitter, "token", Map.of("text", result));
+                }
+                send(this.emitter, "done", doneBody(this.history, false));
+                if (this.cacheKey != null && !result.isEmpty()) {
+                    ChatGatewayService.this.answers.put(this.cacheKey, result);
+                }
+            } catch (JsonProcessingException e) {
+                log.warn("Invalid chat backend response: {}", e.toString());
+                send(this.emitter, "error", Map.of("message", ERROR_MESSAGE));
+            } finally {
+                this.emitter.complete();
+                this.release.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package vn.hoidanit.laptopshop.service.image;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.servlet.ServletContext;
+import vn.hoidanit.laptopshop.service.UploadService;
+
+/*
+ * tìm file ảnh cho /images/** và giữ sẵn FileChannel của các file hay được đọc
+ * - thứ tự tìm: thư mục upload (ngoài webapp) rồi tới /resources/images/ trong webapp
+ * - cache fd nhỏ (Caffeine, giới hạn size + TTL) để ảnh hot không phải open/fstat/close mỗi request
+ * - mỗi OpenImage đếm tham chiếu: bị evict trong lúc đang gửi thì chỉ đóng khi request cuối trả lại
+ */
+@Service
+public class ImageFileService implements DisposableBean {
+
+    private final Path rootPath;
+    private final ServletContext servletContext;
+    private final Cache<String, OpenImage> openFiles;
+
+    public ImageFileService(UploadService uploadService,
+            ServletContext servletContext,
+            @Value("${laptopshop.image.fd-cache-size:256}") int fdCacheSize,
+            @Value("${laptopshop.image.fd-cache-ttl:PT1M}") Duration fdCacheTtl) {
+        this.rootPath = uploadService.getRootPath();
+        this.servletContext = servletContext;
+        this.openFiles = Caffeine.newBuilder()
+                .maximumSize(fdCacheSize)
+                .expireAfterWrite(fdCacheTtl)
+                .<String, OpenImage>removalListener((key, image, cause) -> {
+                    if (image != null) {
+                        image.close();
+                    }
+                })
+                .build();
+    }
+
+    /*
+     * trả về OpenImage đã được giữ 1 tham chiếu (caller phải close), null nếu không có file
+     */
+    public OpenImage open(String relative) throws IOException {
+        if (!isSafe(relative)) {
+            return null;
+        }
+        while (true) {
+            OpenImage image;
+            try {
+                image = this.openFiles.get(relative, this::load);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (image == null) {
+                return null;
+            }
+            if (image.retain()) {
+                return image;
+            }
+            // vừa bị evict và đóng, mở lại
+            this.openFiles.asMap().remove(relative, image);
+        }
+    }
+
+    private OpenImage load(String relative) {
+        Path path = this.resolve(relative);
+        if (path == null) {
+            return null;
+        }
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            return new OpenImage(path, channel, channel.size(), Files.getLastModifiedTime(path).toMillis());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path resolve(String relative) {
+        Path uploaded = this.rootPath.resolve(relative).normalize();
+        if (uploaded.startsWith(this.rootPath) && Files.isRegularFile(uploaded)) {
+            return uploaded;
+        }
+        String legacy = this.servletContext.getRealPath("/resources/images/" + relative);
+        if (legacy != null && Files.isRegularFile(Paths.get(legacy))) {
+            return Paths.get(legacy);
+        }
+        return null;
+    }
+
+    private static boolean isSafe(String relative) {
+        return relative != null && !relative.isEmpty()
+                && !relative.startsWith("/")
+                && !relative.contains("..")
+                && !relative.contains("\\")
+                && relative.indexOf('\0') < 0;
+    }
+
+    @Override
+    public void destroy() {
+        this.openFiles.invalidateAll();
+        this.openFiles.cleanUp();
+    }
+
+    public static final class OpenImage implements AutoCloseable {
+        private final Path path;
+        private final FileChannel channel;
+        private final long size;
+        private final long lastModified;
+        // 1 tham chiếu của cache + 1 cho mỗi request đang dùng
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        private OpenImage(Path path, FileChannel channel, long size, long lastModified) {
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        private boolean retain() {
+            while (true) {
+                int current = this.refs.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (this.refs.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (this.refs.decrementAndGet() == 0) {
+                try {
+                    this.channel.close();
+                } catch (IOException ignored) {
+                    // bỏ qua
+                }
+            }
+        }
+
+        public Path getPath() {
+            return this.path;
+        }
+
+        public FileChannel getChannel() {
+            return this.channel;
+        }
+
+        public long getSize() {
+            return this.size;
+        }
+
+        public long getLastModified() {
+            return this.lastModified;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package vn.hoidanit.laptopshop.service.image;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.servlet.ServletContext;
+import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.repository.ProductRepository;
+
+/*
+ * sinh các bản thu nhỏ (variant) của ảnh upload để view dùng srcset
+ * - variant: {upload-root}/{folder}/{image}.{width}w.jpg, chỉ sinh width nhỏ hơn ảnh gốc
+ * - chạy nền trên 1 pool có giới hạn (thread + hàng đợi), đầy thì bỏ qua, backfill sẽ làm lại sau
+ * - cùng 1 ảnh đang xử lý thì các lần gọi sau dùng chung kết quả
+ * - xong thì ghi danh sách width vào products.image_widths; "" = không có variant nào
+ *   và width của ảnh gốc vào products.image_source_width (ứng viên lớn nhất của srcset)
+ * - ảnh lớn được đọc với subsampling nên không phải decode toàn bộ ảnh gốc vào heap
+ */
+@Service
+public class ImageVariantService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+    public static final String PRODUCT_FOLDER = "product";
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ServletContext servletContext;
+    private final Path rootPath;
+    private final int[] widths;
+    private final float quality;
+    private final Set<String> folders;
+    private final int backfillBatch;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, CompletableFuture<ImageVariants>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageVariantService(ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            ServletContext servletContext,
+            @Value("${laptopshop.upload.root:./data/uploads}") String uploadRoot,
+            @Value("${laptopshop.image.widths:240,480,960}") int[] widths,
+            @Value("${laptopshop.image.quality:0.8}") float quality,
+            @Value("${laptopshop.image.folders:product}") Set<String> folders,
+            @Value("${laptopshop.image.threads:2}") int threads,
+            @Value("${laptopshop.image.queue-capacity:200}") int queueCapacity,
+            @Value("${laptopshop.image.backfill-batch:50}") int backfillBatch) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.servletContext = servletContext;
+        this.rootPath = Paths.get(uploadRoot).toAbsolutePath().normalize();
+        this.widths = Arrays.stream(widths).filter(w -> w > 0).sorted().distinct().toArray();
+        this.quality = quality;
+        this.folders = folders;
+        this.backfillBatch = backfillBatch;
+        this.executor = new ThreadPoolExecutor(threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ImageThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // gọi ngay sau khi upload xong, chưa cần biết ảnh thuộc product nào
+    public CompletableFuture<ImageVariants> generate(String folder, String image) {
+        if (image == null || image.isEmpty() || !this.folders.contains(folder)) {
+            return CompletableFuture.completedFuture(ImageVariants.NONE);
+        }
+        String key = folder + "/" + image;
+        CompletableFuture<ImageVariants> created = new CompletableFuture<>();
+        CompletableFuture<ImageVariants> existing = this.inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        created.whenComplete((result, ex) -> this.inFlight.remove(key, created));
+        try {
+            this.executor.execute(() -> {
+                try {
+                    created.complete(this.resize(folder, image));
+                } catch (Throwable e) {
+                    created.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    // gọi sau khi lưu product: khi variant sẵn sàng thì ghi image_widths cho mọi product dùng ảnh này
+    public void attachToProducts(String image) {
+        if (image == null || image.isEmpty()) {
+            return;
+        }
+        this.generate(PRODUCT_FOLDER, image).whenComplete((result, ex) -> {
+            if (ex != null) {
+                // để image_widths = null, backfill sẽ thử lại
+                log.warn("Cannot generate variants for product image {}: {}", image, ex.toString());
+                return;
+            }
+            this.saveWidths(image, result);
+        });
+    }
+
+    // ảnh cũ (trước khi có pipeline) hoặc lần trước bị bỏ qua vì hàng đợi đầy
+    @Scheduled(fixedDelayString = "${laptopshop.image.backfill-interval:PT10M}",
+            initialDelayString = "${laptopshop.image.backfill-delay:PT1M}")
+    public void backfill() {
+        long after = 0;
+        int total = 0;
+        while (true) {
+            List<Product> batch = this.productRepository.findMissingImageWidths(after,
+                    PageRequest.of(0, this.backfillBatch));
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (Product product : batch) {
+                try {
+                    // chờ từng ảnh để backfill không lấp đầy hàng đợi của upload mới
+                    this.saveWidths(product.getImage(), this.generate(PRODUCT_FOLDER, product.getImage()).join());
+                    total++;
+                } catch (RuntimeException e) {
+                    log.warn("Backfill variants failed for product {}: {}", product.getId(), e.toString());
+                }
+            }
+            after = batch.get(batch.size() - 1).getId();
+        }
+        if (total > 0) {
+            log.info("Generated image variants for {} products", total);
+        }
+    }
+
+    private void saveWidths(String image, ImageVariants result) {
+        String value = result.getWidths().stream().map(String::valueOf).collect(Collectors.joining(","));
+        // 0 = không đọc được ảnh gốc, vẫn ghi để backfill không thử lại mãi
+        this.transactionTemplate.executeWithoutResult(
+                status -> this.productRepository.updateImageWidths(image, value, result.getSourceWidth()));
+    }
+
+    private ImageVariants resize(String folder, String image) throws IOException {
+        Path source = this.locateSource(folder, image);
+        if (source == null) {
+            log.warn("Source image not found: {}/{}", folder, image);
+            return ImageVariants.NONE;
+        }
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return ImageVariants.NONE;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // chỉ đọc header
+                int sourceWidth = reader.getWidth(0);
+
+                List<Integer> result = new ArrayList<>();
+                List<Integer> missing = new ArrayList<>();
+                for (int width : this.widths) {
+                    if (width >= sourceWidth) {
+                        break;
+                    }
+                    result.add(width);
+                    if (!Files.exists(this.variantPath(folder, image, width))) {
+                        missing.add(width);
+                    }
+                }
+                if (missing.isEmpty()) {
+                    return new ImageVariants(result, sourceWidth);
+                }
+
+                // decode 1 lần, bỏ bớt pixel ngay lúc đọc nếu ảnh gốc lớn hơn nhiều so với variant lớn nhất
+                ImageReadParam param = reader.getDefaultReadParam();
+                int largest = missing.get(missing.size() - 1);
+                int subsampling = Math.max(1, sourceWidth / (largest * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                for (int width : missing) {
+                    this.write(this.scale(decoded, width), this.variantPath(folder, image, width));
+                }
+                return new ImageVariants(result, sourceWidth);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private Path locateSource(String folder, String image) {
+        Path uploaded = this.rootPath.resolve(folder).resolve(image).normalize();
+        if (uploaded.startsWith(this.rootPath) && Files.isRegularFile(uploaded)) {
+            return uploaded;
+        }
+        // ảnh upload trước khi chuyển sang lưu ngoài webapp
+        String legacy = this.servletContext.getRealPath("/resources/images/" + folder + "/" + image);
+        if (legacy != null && Files.isRegularFile(Paths.get(legacy))) {
+            return Paths.get(legacy);
+        }
+        return null;
+    }
+
+    private Path variantPath(String folder, String image, int width) {
+        return this.rootPath.resolve(folder).resolve(image + "." + width + "w.jpg").normalize();
+    }
+
+    private BufferedImage scale(BufferedImage source, int width) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        // nền trắng cho ảnh png trong suốt, jpeg không có alpha
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".part");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(this.quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    private static final class ImageThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "image-variant-" + this.counter.incrementAndGet());
+            thread.setDaemon(true);
+            // ưu tiên thấp hơn thread xử lý request
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
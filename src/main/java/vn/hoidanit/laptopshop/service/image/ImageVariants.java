@@ -0,0 +1,28 @@
+package vn.hoidanit.laptopshop.service.image;
+
+import java.util.List;
+
+/*
+ * kết quả sinh variant của 1 ảnh: các width đã có (tăng dần) + width thật của ảnh gốc
+ * sourceWidth = 0 khi không đọc được ảnh gốc
+ */
+public final class ImageVariants {
+
+    static final ImageVariants NONE = new ImageVariants(List.of(), 0);
+
+    private final List<Integer> widths;
+    private final int sourceWidth;
+
+    ImageVariants(List<Integer> widths, int sourceWidth) {
+        this.widths = List.copyOf(widths);
+        this.sourceWidth = sourceWidth;
+    }
+
+    public List<Integer> getWidths() {
+        return widths;
+    }
+
+    public int getSourceWidth() {
+        return sourceWidth;
+    }
+}
@@ -0,0 +1,94 @@
+package vn.hoidanit.laptopshop.service.listener;
+
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import vn.hoidanit.laptopshop.domain.Order;
+import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.service.DashboardStatsService;
+
+/*
+ * JPA entity listener cho User, Product, Order
+ * cập nhật thống kê dashboard sau khi transaction commit
+ * (dùng ObjectProvider để tránh vòng lặp bean: EntityManagerFactory -> listener -> repository)
+ */
+@Component
+public class DashboardStatsListener {
+
+    private final ObjectProvider<DashboardStatsService> statsServiceProvider;
+
+    public DashboardStatsListener(ObjectProvider<DashboardStatsService> statsServiceProvider) {
+        this.statsServiceProvider = statsServiceProvider;
+    }
+
+    @PostLoad
+    public void handleAfterLoad(Object entity) {
+        if (entity instanceof Order order) {
+            order.setLoadedStatus(order.getStatus());
+        }
+    }
+
+    @PostPersist
+    public void handleAfterCreate(Object entity) {
+        if (entity instanceof User) {
+            afterCommit(stats -> stats.onUserCountChanged(1));
+        } else if (entity instanceof Product) {
+            afterCommit(stats -> stats.onProductCountChanged(1));
+        } else if (entity instanceof Order order) {
+            String status = order.getStatus();
+            double totalPrice = order.getTotalPrice();
+            order.setLoadedStatus(status);
+            afterCommit(stats -> stats.onOrderCountChanged(status, totalPrice, 1));
+        }
+    }
+
+    @PostUpdate
+    public void handleAfterUpdate(Object entity) {
+        if (entity instanceof Order order) {
+            String oldStatus = order.getLoadedStatus();
+            String newStatus = order.getStatus();
+            double totalPrice = order.getTotalPrice();
+            order.setLoadedStatus(newStatus);
+            afterCommit(stats -> stats.onOrderStatusChanged(oldStatus, newStatus, totalPrice));
+        }
+    }
+
+    @PostRemove
+    public void handleAfterDelete(Object entity) {
+        if (entity instanceof User) {
+            afterCommit(stats -> stats.onUserCountChanged(-1));
+        } else if (entity instanceof Product) {
+            afterCommit(stats -> stats.onProductCountChanged(-1));
+        } else if (entity instanceof Order order) {
+            String status = order.getLoadedStatus();
+            double totalPrice = order.getTotalPrice();
+            afterCommit(stats -> stats.onOrderCountChanged(status, totalPrice, -1));
+        }
+    }
+
+    private void afterCommit(Consumer<DashboardStatsService> action) {
+        DashboardStatsService stats = this.statsServiceProvider.getIfAvailable();
+        if (stats == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.accept(stats);
+                }
+            });
+        } else {
+            action.accept(stats);
+        }
+    }
+}
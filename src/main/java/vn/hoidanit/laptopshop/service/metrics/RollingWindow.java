@@ -0,0 +1,53 @@
+package vn.hoidanit.laptopshop.service.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * bộ đếm cửa sổ trượt theo giây, không dùng lock:
+ * mỗi giây 1 bucket (vòng tròn), bucket cũ được reset bằng CAS khi bị ghi đè
+ * sai số nhỏ có thể xảy ra đúng lúc chuyển bucket, chấp nhận được cho số liệu dashboard
+ */
+public class RollingWindow {
+
+    private final int seconds;
+    private final AtomicLongArray bucketSeconds;
+    private final AtomicLongArray bucketValues;
+
+    public RollingWindow(int seconds) {
+        this.seconds = seconds;
+        this.bucketSeconds = new AtomicLongArray(seconds);
+        this.bucketValues = new AtomicLongArray(seconds);
+    }
+
+    public void add(long amount) {
+        this.add(System.currentTimeMillis() / 1000, amount);
+    }
+
+    void add(long nowSecond, long amount) {
+        int index = (int) (nowSecond % this.seconds);
+        long stamp = this.bucketSeconds.get(index);
+        if (stamp != nowSecond && this.bucketSeconds.compareAndSet(index, stamp, nowSecond)) {
+            this.bucketValues.set(index, 0);
+        }
+        this.bucketValues.addAndGet(index, amount);
+    }
+
+    // tổng trong toàn bộ cửa sổ (seconds giây gần nhất)
+    public long sum() {
+        return this.sum(System.currentTimeMillis() / 1000);
+    }
+
+    long sum(long nowSecond) {
+        long total = 0;
+        for (int i = 0; i < this.seconds; i++) {
+            if (nowSecond - this.bucketSeconds.get(i) < this.seconds) {
+                total += this.bucketValues.get(i);
+            }
+        }
+        return total;
+    }
+
+    public int getSeconds() {
+        return seconds;
+    }
+}
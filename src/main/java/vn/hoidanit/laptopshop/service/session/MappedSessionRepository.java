@@ -0,0 +1,412 @@
+package vn.hoidanit.laptopshop.service.session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+
+/*
+ * session store dùng 1 file memory-mapped (off-heap), cho deploy 1 node không cần MySQL
+ * - file = header + N slot kích thước cố định, bản thân mảng slot là bảng băm open addressing
+ *   (linear probing theo hash của session id)
+ * - xóa bằng backward-shift (không để lại tombstone) nên bảng không bị "bẩn" theo thời gian
+ * - định kỳ quét slot hết hạn (TTL) và xóa -> compaction, sau đó force() xuống đĩa
+ * - dữ liệu nằm trong file nên vẫn còn sau khi restart (nếu cấu hình slot không đổi)
+ * - attribute được serialize bằng java serialization, chỉ nằm trên heap trong lúc xử lý request
+ */
+public class MappedSessionRepository implements SessionRepository<MapSession>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedSessionRepository.class);
+
+    private static final int MAGIC = 0x4C535353;
+    private static final int FORMAT = 1;
+    private static final int FILE_HEADER = 64;
+
+    // layout 1 slot
+    private static final int OFF_STATE = 0;
+    private static final int OFF_HASH = 4;
+    private static final int OFF_CREATED = 8;
+    private static final int OFF_ACCESSED = 16;
+    private static final int OFF_MAX_INACTIVE = 24;
+    private static final int OFF_ID_LEN = 32;
+    private static final int OFF_ID = 33;
+    private static final int MAX_ID = 64;
+    private static final int OFF_PAYLOAD_LEN = 100;
+    private static final int SLOT_HEADER = 104;
+
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int slotSize;
+    private final Duration defaultMaxInactiveInterval;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService sweeper;
+    private final ClassLoader classLoader = MappedSessionRepository.class.getClassLoader();
+
+    public MappedSessionRepository(Path file, int slotCount, int slotSize,
+            Duration defaultMaxInactiveInterval, Duration sweepInterval) throws IOException {
+        long size = FILE_HEADER + (long) slotCount * slotSize;
+        if (slotSize <= SLOT_HEADER || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("slot-size phải > " + SLOT_HEADER
+                    + " và slot-count * slot-size < 2GB");
+        }
+        this.slotCount = slotCount;
+        this.slotSize = slotSize;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        boolean compatible = this.channel.size() == size;
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        compatible = compatible && this.buffer.getInt(0) == MAGIC && this.buffer.getInt(4) == FORMAT
+                && this.buffer.getInt(8) == slotCount && this.buffer.getInt(12) == slotSize;
+        if (!compatible) {
+            // file mới hoặc đổi cấu hình slot -> bỏ dữ liệu cũ
+            for (int i = 0; i < slotCount; i++) {
+                this.buffer.put(offset(i) + OFF_STATE, EMPTY);
+            }
+            this.buffer.putInt(0, MAGIC).putInt(4, FORMAT).putInt(8, slotCount).putInt(12, slotSize);
+            this.buffer.force();
+            log.info("Created session store {} ({} slots x {} bytes)", file, slotCount, slotSize);
+        }
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-mmap-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = sweepInterval.toMillis();
+        this.sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public MapSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(this.defaultMaxInactiveInterval);
+        return session;
+    }
+
+    @Override
+    public void save(MapSession session) {
+        String id = session.getId();
+        checkId(id);
+        byte[] payload = serialize(session);
+        if (SLOT_HEADER + payload.length > this.slotSize) {
+            throw new IllegalStateException("Session " + id + " quá lớn (" + payload.length
+                    + " bytes), tăng laptopshop.session.mmap.slot-size");
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            // đổi session id (login) -> xóa bản ghi theo id cũ
+            String originalId = session.getOriginalId();
+            if (originalId != null && !originalId.equals(id)) {
+                int old = find(originalId);
+                if (old >= 0) {
+                    removeAt(old);
+                }
+            }
+
+            int hash = hash(id);
+            int slot = find(id);
+            if (slot < 0) {
+                slot = freeSlot(hash);
+            }
+            if (slot < 0) {
+                // đầy: dọn session hết hạn rồi thử lại
+                sweepLocked(System.currentTimeMillis());
+                slot = freeSlot(hash);
+                if (slot < 0) {
+                    throw new IllegalStateException("Session store đầy, tăng laptopshop.session.mmap.slot-count");
+                }
+            }
+
+            int base = offset(slot);
+            this.buffer.putInt(base + OFF_HASH, hash);
+            this.buffer.putLong(base + OFF_CREATED, session.getCreationTime().toEpochMilli());
+            this.buffer.putLong(base + OFF_ACCESSED, session.getLastAccessedTime().toEpochMilli());
+            this.buffer.putLong(base + OFF_MAX_INACTIVE, session.getMaxInactiveInterval().getSeconds());
+            this.buffer.put(base + OFF_ID_LEN, (byte) id.length());
+            for (int i = 0; i < id.length(); i++) {
+                this.buffer.put(base + OFF_ID + i, (byte) id.charAt(i));
+            }
+            this.buffer.putInt(base + OFF_PAYLOAD_LEN, payload.length);
+            this.buffer.put(base + SLOT_HEADER, payload);
+            this.buffer.put(base + OFF_STATE, USED);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public MapSession findById(String id) {
+        if (id == null || id.length() > MAX_ID) {
+            return null;
+        }
+        boolean expired = false;
+        this.lock.readLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0) {
+                return null;
+            }
+            int base = offset(slot);
+            if (isExpired(base, System.currentTimeMillis())) {
+                expired = true;
+            } else {
+                MapSession session = new MapSession(id);
+                session.setCreationTime(Instant.ofEpochMilli(this.buffer.getLong(base + OFF_CREATED)));
+                session.setLastAccessedTime(Instant.ofEpochMilli(this.buffer.getLong(base + OFF_ACCESSED)));
+                session.setMaxInactiveInterval(Duration.ofSeconds(this.buffer.getLong(base + OFF_MAX_INACTIVE)));
+                Map<String, Object> attributes = deserialize(base);
+                if (attributes != null) {
+                    attributes.forEach(session::setAttribute);
+                    return session;
+                }
+                // không đọc được (class đã đổi sau khi deploy...) -> coi như hết hạn
+                expired = true;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        if (expired) {
+            this.deleteById(id);
+        }
+        return null;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        if (id == null || id.length() > MAX_ID) {
+            return;
+        }
+        this.lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot >= 0) {
+                removeAt(slot);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    // xóa session hết hạn + ghi xuống đĩa
+    public void sweep() {
+        try {
+            int removed;
+            this.lock.writeLock().lock();
+            try {
+                removed = sweepLocked(System.currentTimeMillis());
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+            this.buffer.force();
+            if (removed > 0) {
+                log.debug("Removed {} expired sessions from mmap store", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Session mmap sweep failed", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.sweeper.shutdown();
+        this.lock.writeLock().lock();
+        try {
+            this.buffer.force();
+            this.channel.close();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private int sweepLocked(long now) {
+        int removed = 0;
+        int i = 0;
+        while (i < this.slotCount) {
+            int base = offset(i);
+            if (this.buffer.get(base + OFF_STATE) == USED && isExpired(base, now)) {
+                // slot i có thể nhận 1 entry khác sau khi shift -> kiểm tra lại slot i
+                removeAt(i);
+                removed++;
+            } else {
+                i++;
+            }
+        }
+        return removed;
+    }
+
+    private int find(String id) {
+        int hash = hash(id);
+        int start = Math.floorMod(hash, this.slotCount);
+        for (int probe = 0; probe < this.slotCount; probe++) {
+            int slot = (start + probe) % this.slotCount;
+            int base = offset(slot);
+            if (this.buffer.get(base + OFF_STATE) == EMPTY) {
+                return -1;
+            }
+            if (this.buffer.getInt(base + OFF_HASH) == hash && idEquals(base, id)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int freeSlot(int hash) {
+        int start = Math.floorMod(hash, this.slotCount);
+        for (int probe = 0; probe < this.slotCount; probe++) {
+            int slot = (start + probe) % this.slotCount;
+            if (this.buffer.get(offset(slot) + OFF_STATE) == EMPTY) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * xóa slot i theo kiểu backward-shift (Knuth, algorithm R):
+     * kéo các entry phía sau về lấp chỗ trống nếu vị trí gốc của chúng cho phép,
+     * nhờ vậy find() vẫn dừng đúng ở slot EMPTY đầu tiên
+     */
+    private void removeAt(int i) {
+        int j = i;
+        while (true) {
+            this.buffer.put(offset(i) + OFF_STATE, EMPTY);
+            int base;
+            while (true) {
+                j = (j + 1) % this.slotCount;
+                base = offset(j);
+                if (this.buffer.get(base + OFF_STATE) == EMPTY) {
+                    return;
+                }
+                int home = Math.floorMod(this.buffer.getInt(base + OFF_HASH), this.slotCount);
+                boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (!stays) {
+                    break;
+                }
+            }
+            int length = SLOT_HEADER + this.buffer.getInt(base + OFF_PAYLOAD_LEN);
+            this.buffer.put(offset(i), this.buffer, base, length);
+            i = j;
+        }
+    }
+
+    private boolean isExpired(int base, long now) {
+        long maxInactiveSeconds = this.buffer.getLong(base + OFF_MAX_INACTIVE);
+        return maxInactiveSeconds >= 0
+                && now - this.buffer.getLong(base + OFF_ACCESSED) >= maxInactiveSeconds * 1000;
+    }
+
+    private boolean idEquals(int base, String id) {
+        if (this.buffer.get(base + OFF_ID_LEN) != id.length()) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            if (this.buffer.get(base + OFF_ID + i) != (byte) id.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int offset(int slot) {
+        return FILE_HEADER + slot * this.slotSize;
+    }
+
+    private static int hash(String id) {
+        int h = id.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static void checkId(String id) {
+        if (id.length() > MAX_ID) {
+            throw new IllegalArgumentException("Session id quá dài: " + id.length());
+        }
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) > 0x7F) {
+                throw new IllegalArgumentException("Session id phải là ASCII");
+            }
+        }
+    }
+
+    private static byte[] serialize(MapSession session) {
+        Map<String, Object> attributes = new HashMap<>();
+        for (String name : session.getAttributeNames()) {
+            attributes.put(name, session.getAttribute(name));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(attributes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không serialize được session " + session.getId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> deserialize(int base) {
+        int length = this.buffer.getInt(base + OFF_PAYLOAD_LEN);
+        ByteBuffer payload = this.buffer.slice(base + SLOT_HEADER, length);
+        try (ObjectInputStream in = new ConfigurableObjectInputStream(new ByteBufferInputStream(payload),
+                this.classLoader)) {
+            return (Map<String, Object>) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn("Cannot deserialize session from mmap store, dropping it", e);
+            return null;
+        }
+    }
+
+    // đọc thẳng từ vùng nhớ map, không copy ra byte[]
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer source;
+
+        ByteBufferInputStream(ByteBuffer source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() {
+            return this.source.hasRemaining() ? this.source.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!this.source.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, this.source.remaining());
+            this.source.get(b, off, n);
+            return n;
+        }
+    }
+}
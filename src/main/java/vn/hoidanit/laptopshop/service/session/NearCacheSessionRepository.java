@@ -0,0 +1,471 @@
+package vn.hoidanit.laptopshop.service.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import vn.hoidanit.laptopshop.domain.SessionVersion;
+
+/*
+ * near-cache trong JVM đặt trước session repository JDBC
+ * - findById: đọc từ cache, chỉ xuống DB khi chưa có (hoặc đã bị node khác sửa)
+ * - save: thay đổi attribute / lastAccessedTime được gom lại và ghi theo lô mỗi flush-interval,
+ *   lastAccessedTime đơn thuần chỉ ghi khi đã trễ quá max-access-lag
+ * - ghi ngay (write-through): session mới, đổi session id, đổi maxInactiveInterval,
+ *   đổi security context (login/logout), xóa session
+ * - mỗi lần ghi tăng version trong spring_session_version; định kỳ đọc các version
+ *   khác bản đang cache (do node khác ghi) và bỏ session đó khỏi cache
+ *   (so khác chứ không so lớn hơn: dòng version bị purge rồi tạo lại sẽ bắt đầu lại từ 1)
+ * - session đã đăng nhập (có security context) còn so version mỗi lần findById,
+ *   logout / xóa ở node khác có hiệu lực ngay, không chờ poll
+ * - session bị xóa ở nơi khác (logout, reaper) thì bỏ entry, không ghi lại
+ * - mỗi request nhận 1 bản copy attribute riêng, thay đổi được áp lại vào bản gốc khi save
+ */
+public class NearCacheSessionRepository<S extends Session>
+        implements FindByIndexNameSessionRepository<NearCacheSessionRepository.CachedSession> {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCacheSessionRepository.class);
+    private static final String SECURITY_CONTEXT = HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY;
+
+    private final FindByIndexNameSessionRepository<S> delegate;
+    private final SessionVersionStore versions;
+    private final Cache<String, Entry> cache;
+    private final Duration maxAccessLag;
+    private final Duration pollOverlap;
+    private final ScheduledExecutorService flusher;
+    private LocalDateTime lastPoll = LocalDateTime.now();
+
+    public NearCacheSessionRepository(FindByIndexNameSessionRepository<S> delegate,
+            SessionVersionStore versions, int maxSessions, Duration flushInterval, Duration maxAccessLag) {
+        this.delegate = delegate;
+        this.versions = versions;
+        this.maxAccessLag = maxAccessLag;
+        // đọc lùi thêm 1 chút để không sót bản ghi do lệch giờ giữa các node
+        this.pollOverlap = flushInterval.multipliedBy(2);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSessions)
+                .removalListener((String id, Entry entry, RemovalCause cause) -> {
+                    // bị đẩy ra vì đầy cache -> ghi nốt thay đổi chưa flush
+                    if (entry != null && cause.wasEvicted()) {
+                        synchronized (entry) {
+                            if (!entry.removed && entry.isDirty()) {
+                                this.tryWrite(entry);
+                            }
+                        }
+                    }
+                })
+                .build();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-near-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = flushInterval.toMillis();
+        this.flusher.scheduleWithFixedDelay(this::flushAndPoll, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CachedSession createSession() {
+        Entry entry = new Entry(this.delegate.createSession(), 0);
+        entry.isNew = true;
+        return new CachedSession(entry);
+    }
+
+    @Override
+    public void save(CachedSession view) {
+        Entry entry = view.entry;
+        String originalId = view.originalId;
+        boolean stale = false;
+
+        synchronized (entry) {
+            if (entry.removed) {
+                return;
+            }
+            Session backing = entry.backing;
+            boolean writeThrough = entry.isNew || originalId != null;
+
+            for (String name : view.changed) {
+                Object value = view.attributes.get(name);
+                if (value == null) {
+                    backing.removeAttribute(name);
+                } else {
+                    backing.setAttribute(name, value);
+                }
+                entry.attributesDirty = true;
+            }
+            writeThrough |= view.changed.contains(SECURITY_CONTEXT);
+
+            if (view.lastAccessedTime.isAfter(backing.getLastAccessedTime())) {
+                backing.setLastAccessedTime(view.lastAccessedTime);
+                entry.accessDirty = true;
+            }
+            if (!view.maxInactiveInterval.equals(backing.getMaxInactiveInterval())) {
+                backing.setMaxInactiveInterval(view.maxInactiveInterval);
+                writeThrough = true;
+            }
+
+            // entry không còn nằm trong cache (bị invalidate / evict) thì flusher sẽ không thấy nó nữa
+            if (!writeThrough && entry.isDirty() && this.cache.getIfPresent(backing.getId()) != entry) {
+                writeThrough = true;
+            }
+            if (writeThrough) {
+                stale = this.write(entry);
+            }
+        }
+
+        view.changed.clear();
+        view.originalId = null;
+        if (originalId != null) {
+            this.cache.invalidate(originalId);
+        }
+        if (stale) {
+            this.cache.invalidate(view.id);
+        } else if (!entry.isNew) {
+            this.cache.put(view.id, entry);
+        }
+    }
+
+    @Override
+    public CachedSession findById(String id) {
+        Entry entry = this.cache.getIfPresent(id);
+        if (entry != null && this.isOutdated(id, entry)) {
+            this.evictOutdated(id, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            // đọc version trước: nếu session bị sửa ngay sau đó, lần poll kế tiếp sẽ thấy version mới hơn
+            long version = this.versions.currentVersion(id);
+            S session = this.delegate.findById(id);
+            if (session == null) {
+                return null;
+            }
+            Entry loaded = new Entry(session, version);
+            entry = this.cache.asMap().putIfAbsent(id, loaded);
+            if (entry == null) {
+                entry = loaded;
+            }
+        }
+
+        synchronized (entry) {
+            if (entry.removed) {
+                return null;
+            }
+            if (entry.backing.isExpired()) {
+                entry.removed = true;
+                this.cache.invalidate(id);
+                this.delegate.deleteById(id);
+                return null;
+            }
+            return new CachedSession(entry);
+        }
+    }
+
+    @Override
+    public void deleteById(String id) {
+        Entry entry = this.cache.asMap().remove(id);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.removed = true;
+            }
+        }
+        this.delegate.deleteById(id);
+        // dòng version giữ đến khi purge để các node khác kịp thấy session đã bị xóa
+        this.versions.bump(id, Instant.now());
+    }
+
+    @Override
+    public Map<String, CachedSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        Map<String, S> sessions = this.delegate.findByIndexNameAndIndexValue(indexName, indexValue);
+        Map<String, CachedSession> result = new LinkedHashMap<>();
+        sessions.forEach((id, session) -> {
+            CachedSession cached = this.findById(id);
+            result.put(id, cached != null ? cached : new CachedSession(new Entry(session, 0)));
+        });
+        return result;
+    }
+
+    // ghi toàn bộ thay đổi còn lại, gọi khi tắt ứng dụng
+    public void shutdown() {
+        this.flusher.shutdown();
+        for (Entry entry : this.cache.asMap().values()) {
+            synchronized (entry) {
+                if (!entry.removed && entry.isDirty()) {
+                    this.tryWrite(entry);
+                }
+            }
+        }
+    }
+
+    // lỗi của 1 session không chặn các session khác: tryWrite tự bắt lỗi, poll vẫn chạy khi flush lỗi
+    private void flushAndPoll() {
+        int flushed = 0;
+        Instant now = Instant.now();
+        for (Entry entry : this.cache.asMap().values()) {
+            boolean drop;
+            synchronized (entry) {
+                if (entry.removed || entry.isNew) {
+                    continue;
+                }
+                boolean due = entry.attributesDirty
+                        || (entry.accessDirty && entry.lastFlush.plus(this.maxAccessLag).isBefore(now));
+                if (!due) {
+                    continue;
+                }
+                drop = this.tryWrite(entry);
+                flushed++;
+            }
+            if (drop) {
+                this.cache.invalidate(entry.backing.getId());
+            }
+        }
+
+        int invalidated = 0;
+        try {
+            LocalDateTime pollStart = LocalDateTime.now();
+            for (SessionVersion version : this.versions.changedSince(this.lastPoll.minus(this.pollOverlap))) {
+                Entry entry = this.cache.getIfPresent(version.getSessionId());
+                if (entry == null) {
+                    continue;
+                }
+                synchronized (entry) {
+                    if (version.getVersion() == entry.knownVersion) {
+                        continue;
+                    }
+                }
+                this.evictOutdated(version.getSessionId(), entry);
+                invalidated++;
+            }
+            this.lastPoll = pollStart;
+        } catch (RuntimeException e) {
+            log.warn("Session near-cache poll failed", e);
+        }
+
+        if (flushed > 0 || invalidated > 0) {
+            log.debug("Session near-cache flushed {} sessions, invalidated {}", flushed, invalidated);
+        }
+    }
+
+    // entry có security context mà version trong DB đã khác bản đang cache
+    private boolean isOutdated(String id, Entry entry) {
+        long known;
+        synchronized (entry) {
+            if (entry.removed || entry.backing.getAttribute(SECURITY_CONTEXT) == null) {
+                return false;
+            }
+            known = entry.knownVersion;
+        }
+        return this.versions.currentVersion(id) != known;
+    }
+
+    /*
+     * node khác đã ghi / xóa session: bỏ khỏi cache để lần sau đọc lại từ DB
+     * thay đổi chưa ghi của node này được ghi lại trước (JDBC chỉ ghi các attribute đã đổi),
+     * trừ khi session đã bị xóa -> ghi lại sẽ lỗi khóa ngoại SPRING_SESSION_ATTRIBUTES
+     */
+    private void evictOutdated(String id, Entry entry) {
+        synchronized (entry) {
+            if (!entry.removed && entry.isDirty()) {
+                if (this.isDeletedRemotely(id)) {
+                    entry.removed = true;
+                } else {
+                    this.tryWrite(entry);
+                }
+            }
+        }
+        this.cache.invalidate(id);
+    }
+
+    /*
+     * write() cho flusher / evict / shutdown: không ném lỗi ra ngoài (phải giữ lock của entry)
+     * - session đã bị xóa ở nơi khác -> đánh dấu removed, bỏ thay đổi
+     * - lỗi khác (DB tạm lỗi) -> entry vẫn dirty, lần flush sau ghi lại
+     * trả về true nếu nên bỏ entry khỏi cache
+     */
+    private boolean tryWrite(Entry entry) {
+        String id = entry.backing.getId();
+        try {
+            return this.write(entry);
+        } catch (RuntimeException e) {
+            if (this.isDeletedRemotely(id)) {
+                entry.removed = true;
+                log.debug("Session {} was deleted elsewhere, dropping unsaved changes", id);
+                return true;
+            }
+            log.warn("Session near-cache failed to write session {}", id, e);
+            return false;
+        }
+    }
+
+    // JDBC findById trả null khi session không còn (hoặc đã hết hạn, khi đó nó tự xóa luôn)
+    private boolean isDeletedRemotely(String id) {
+        try {
+            return this.delegate.findById(id) == null;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /*
+     * ghi bản gốc xuống DB và tăng version (phải giữ lock của entry)
+     * trả về true nếu có node khác đã ghi xen vào -> nên đọc lại từ DB
+     */
+    @SuppressWarnings("unchecked")
+    private boolean write(Entry entry) {
+        this.delegate.save((S) entry.backing);
+        entry.isNew = false;
+        entry.attributesDirty = false;
+        entry.accessDirty = false;
+        entry.lastFlush = Instant.now();
+
+        // dòng version sống theo hạn của chính session (session không hết hạn: tính từ lần ghi cuối)
+        Duration maxInactive = entry.backing.getMaxInactiveInterval();
+        Instant expiresAt = maxInactive.isNegative() ? Instant.now()
+                : entry.backing.getLastAccessedTime().plus(maxInactive);
+        long version = this.versions.bump(entry.backing.getId(), expiresAt);
+        boolean stale = version != entry.knownVersion + 1;
+        entry.knownVersion = version;
+        return stale;
+    }
+
+    // bản gốc của 1 session trong cache, mọi truy cập đều synchronized trên entry
+    static final class Entry {
+        private final Session backing;
+        private long knownVersion;
+        private boolean isNew;
+        private boolean attributesDirty;
+        private boolean accessDirty;
+        private boolean removed;
+        private Instant lastFlush = Instant.now();
+
+        Entry(Session backing, long knownVersion) {
+            this.backing = backing;
+            this.knownVersion = knownVersion;
+        }
+
+        boolean isDirty() {
+            return this.isNew || this.attributesDirty || this.accessDirty;
+        }
+    }
+
+    // bản copy dùng trong 1 request
+    public static final class CachedSession implements Session {
+        private final Entry entry;
+        private final Map<String, Object> attributes = new HashMap<>();
+        private final Set<String> changed = new HashSet<>();
+        private final Instant creationTime;
+        private String id;
+        private String originalId;
+        private Instant lastAccessedTime;
+        private Duration maxInactiveInterval;
+
+        CachedSession(Entry entry) {
+            this.entry = entry;
+            synchronized (entry) {
+                Session backing = entry.backing;
+                this.id = backing.getId();
+                this.creationTime = backing.getCreationTime();
+                this.lastAccessedTime = backing.getLastAccessedTime();
+                this.maxInactiveInterval = backing.getMaxInactiveInterval();
+                for (String name : backing.getAttributeNames()) {
+                    this.attributes.put(name, backing.getAttribute(name));
+                }
+            }
+        }
+
+        @Override
+        public String getId() {
+            return this.id;
+        }
+
+        @Override
+        public String changeSessionId() {
+            String newId;
+            synchronized (this.entry) {
+                newId = this.entry.backing.changeSessionId();
+            }
+            if (this.originalId == null) {
+                this.originalId = this.id;
+            }
+            this.id = newId;
+            return newId;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getAttribute(String attributeName) {
+            return (T) this.attributes.get(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return Collections.unmodifiableSet(new HashSet<>(this.attributes.keySet()));
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            if (attributeValue == null) {
+                this.removeAttribute(attributeName);
+                return;
+            }
+            this.attributes.put(attributeName, attributeValue);
+            this.changed.add(attributeName);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            this.attributes.remove(attributeName);
+            this.changed.add(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return this.creationTime;
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            this.lastAccessedTime = lastAccessedTime;
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return this.lastAccessedTime;
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            this.maxInactiveInterval = interval;
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return this.maxInactiveInterval;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return !this.maxInactiveInterval.isNegative()
+                    && Instant.now().minus(this.maxInactiveInterval).compareTo(this.lastAccessedTime) >= 0;
+        }
+    }
+}
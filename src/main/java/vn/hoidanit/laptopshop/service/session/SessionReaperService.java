@@ -0,0 +1,178 @@
+package vn.hoidanit.laptopshop.service.session;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import vn.hoidanit.laptopshop.domain.dto.SessionReaperStatsDTO;
+
+/*
+ * dọn session JDBC hết hạn thay cho cleanup-cron mặc định của spring session
+ * (mặc định xóa tất cả bằng 1 câu DELETE lớn -> khóa bảng lúc cao điểm)
+ * - mỗi batch: lấy tối đa batchSize PRIMARY_ID theo index EXPIRY_TIME rồi xóa theo khóa chính
+ *   (SPRING_SESSION_ATTRIBUTES bị xóa theo ON DELETE CASCADE)
+ * - batch chạy nhanh hơn target-latency thì tăng batchSize, chậm hơn thì giảm và nghỉ lâu hơn
+ * - mỗi lần chạy có giới hạn thời gian, phần còn lại để lần sau
+ * - chạy trên thread riêng (có Thread.sleep giữa các batch), không giữ thread của pool @Scheduled dùng chung
+ * - backlog chỉ đếm tối đa BACKLOG_COUNT_LIMIT dòng, không COUNT(*) cả bảng khi tồn đọng nhiều
+ */
+@Service
+public class SessionReaperService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionReaperService.class);
+    static final int BACKLOG_COUNT_LIMIT = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetLatencyMillis;
+    private final Duration maxRunTime;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile int batchSize;
+
+    // metrics
+    private final AtomicLong rowsReaped = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalBatchMillis = new AtomicLong();
+    private volatile long backlog;
+    private volatile long lastBatchMillis;
+    private volatile long lastRunAt;
+
+    public SessionReaperService(JdbcTemplate jdbcTemplate,
+            @Value("${laptopshop.session.store:jdbc}") String sessionStore,
+            @Value("${laptopshop.session.reaper.min-batch-size:50}") int minBatchSize,
+            @Value("${laptopshop.session.reaper.max-batch-size:2000}") int maxBatchSize,
+            @Value("${laptopshop.session.reaper.target-latency:PT0.05S}") Duration targetLatency,
+            @Value("${laptopshop.session.reaper.max-run-time:PT20S}") Duration maxRunTime,
+            @Value("${laptopshop.session.reaper.interval:PT1M}") Duration interval) {
+        this.jdbcTemplate = jdbcTemplate;
+        // chỉ có bảng SPRING_SESSION khi dùng store jdbc
+        this.enabled = "jdbc".equals(sessionStore);
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.targetLatencyMillis = targetLatency.toMillis();
+        this.maxRunTime = maxRunTime;
+        this.batchSize = minBatchSize;
+
+        if (this.enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "session-reaper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = interval.toMillis();
+            this.scheduler.scheduleWithFixedDelay(this::reap, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    public void reap() {
+        if (!this.enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long deadline = now + this.maxRunTime.toMillis();
+        this.lastRunAt = now;
+
+        try {
+            this.backlog = countExpired(now);
+            long reaped = 0;
+            while (System.currentTimeMillis() < deadline) {
+                int size = this.batchSize;
+                long start = System.nanoTime();
+                List<String> ids = findExpiredIds(now, size);
+                int deleted = deleteExpired(ids, now);
+                long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+                this.batches.incrementAndGet();
+                this.totalBatchMillis.addAndGet(elapsed);
+                this.lastBatchMillis = elapsed;
+                this.rowsReaped.addAndGet(deleted);
+                this.backlog = Math.max(0, this.backlog - deleted);
+                reaped += deleted;
+
+                adapt(elapsed, ids.size() == size);
+                if (ids.size() < size) {
+                    break;
+                }
+                // nghỉ tỉ lệ với độ trễ: DB càng chậm càng nghỉ lâu
+                long pause = elapsed > this.targetLatencyMillis ? elapsed * 4 : elapsed;
+                Thread.sleep(Math.max(10, pause));
+            }
+            if (reaped > 0) {
+                log.info("Reaped {} expired sessions, backlog ~{} (counted up to {}), batch size {}", reaped,
+                        this.backlog, BACKLOG_COUNT_LIMIT, this.batchSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Session reaper failed", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    public SessionReaperStatsDTO getStats() {
+        long count = this.batches.get();
+        return new SessionReaperStatsDTO(this.rowsReaped.get(), count, this.backlog, this.lastBatchMillis,
+                count == 0 ? 0 : (double) this.totalBatchMillis.get() / count, this.batchSize, this.lastRunAt);
+    }
+
+    private void adapt(long elapsedMillis, boolean fullBatch) {
+        int size = this.batchSize;
+        if (elapsedMillis > this.targetLatencyMillis) {
+            size = Math.max(this.minBatchSize, size / 2);
+        } else if (fullBatch && elapsedMillis * 2 < this.targetLatencyMillis) {
+            size = Math.min(this.maxBatchSize, size + size / 2);
+        }
+        this.batchSize = size;
+    }
+
+    // đếm có chặn trên: quét tối đa BACKLOG_COUNT_LIMIT mục của index EXPIRY_TIME
+    private long countExpired(long now) {
+        Long count = this.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM SPRING_SESSION WHERE EXPIRY_TIME < ? LIMIT ?) expired",
+                Long.class, now, BACKLOG_COUNT_LIMIT);
+        return count == null ? 0 : count;
+    }
+
+    private List<String> findExpiredIds(long now, int size) {
+        return this.jdbcTemplate.queryForList(
+                "SELECT PRIMARY_ID FROM SPRING_SESSION WHERE EXPIRY_TIME < ? ORDER BY EXPIRY_TIME LIMIT ?",
+                String.class, now, size);
+    }
+
+    // kiểm tra lại EXPIRY_TIME: session có thể vừa được gia hạn giữa 2 câu lệnh
+    private int deleteExpired(List<String> ids, long now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Object[] args = new Object[ids.size() + 1];
+        for (int i = 0; i < ids.size(); i++) {
+            args[i] = ids.get(i);
+        }
+        args[ids.size()] = now;
+        return this.jdbcTemplate.update("DELETE FROM SPRING_SESSION WHERE PRIMARY_ID IN (" + placeholders
+                + ") AND EXPIRY_TIME < ?", args);
+    }
+}
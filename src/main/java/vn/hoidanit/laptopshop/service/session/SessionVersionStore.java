@@ -0,0 +1,60 @@
+package vn.hoidanit.laptopshop.service.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import vn.hoidanit.laptopshop.domain.SessionVersion;
+import vn.hoidanit.laptopshop.repository.SessionVersionRepository;
+
+/*
+ * đọc / tăng version session cho NearCacheSessionRepository
+ */
+@Service
+public class SessionVersionStore {
+
+    private final SessionVersionRepository sessionVersionRepository;
+    private final Duration retention;
+
+    public SessionVersionStore(SessionVersionRepository sessionVersionRepository,
+            @Value("${spring.session.timeout:30m}") Duration sessionTimeout) {
+        this.sessionVersionRepository = sessionVersionRepository;
+        // giữ thêm sau khi session hết hạn để các node kịp poll (và bù lệch giờ giữa các node)
+        this.retention = sessionTimeout.multipliedBy(2);
+    }
+
+    /*
+     * trả về version mới sau khi tăng
+     * expiresAt: hạn của session tại lần ghi này, dòng version được giữ đến expiresAt + retention
+     * (session remember-me sống lâu hơn nhiều so với spring.session.timeout)
+     */
+    @Transactional
+    public long bump(String sessionId, Instant expiresAt) {
+        this.sessionVersionRepository.bump(sessionId, LocalDateTime.now(),
+                LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+        Long version = this.sessionVersionRepository.lastInsertId();
+        return version == null ? 0 : version;
+    }
+
+    public long currentVersion(String sessionId) {
+        Long version = this.sessionVersionRepository.findVersion(sessionId);
+        return version == null ? 0 : version;
+    }
+
+    public List<SessionVersion> changedSince(LocalDateTime since) {
+        return this.sessionVersionRepository.findChangedSince(since);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "PT1H")
+    public void purge() {
+        this.sessionVersionRepository.deleteExpiredBefore(LocalDateTime.now().minus(this.retention));
+    }
+}
@@ -0,0 +1,42 @@
+package vn.hoidanit.laptopshop.service.specification;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import vn.hoidanit.laptopshop.domain.Order;
+import vn.hoidanit.laptopshop.domain.Order_;
+import vn.hoidanit.laptopshop.domain.User_;
+
+public class OrderSpecs {
+    public static Specification<Order> matchStatus(String status) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get(Order_.STATUS), status);
+    }
+
+    public static Specification<Order> createdFrom(LocalDateTime from) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(
+                root.get(Order_.CREATED_AT), from);
+    }
+
+    public static Specification<Order> createdBefore(LocalDateTime before) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThan(root.get(Order_.CREATED_AT), before);
+    }
+
+    public static Specification<Order> matchUserEmail(String email) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(
+                root.join(Order_.USER).get(User_.EMAIL), email);
+    }
+
+    public static Specification<Order> minTotalPrice(double price) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.ge(root.get(Order_.TOTAL_PRICE), price);
+    }
+
+    public static Specification<Order> maxTotalPrice(double price) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.le(root.get(Order_.TOTAL_PRICE), price);
+    }
+
+    // keyset: chỉ lấy các order đứng sau cursor (id giảm dần)
+    public static Specification<Order> idLessThan(long cursor) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lt(root.get(Order_.ID), cursor);
+    }
+}
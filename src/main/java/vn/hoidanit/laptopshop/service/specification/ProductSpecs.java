@@ -50,4 +50,20 @@ public class ProductSpecs {
                 root.get(Product_.PRICE), min, max);
     }
 
-}
\ No newline at end of file
+    // keyset: sau (price, id) theo thứ tự price tăng/giảm, id tăng
+    public static Specification<Product> afterPriceAndId(double price, long id, boolean ascending) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                ascending
+                        ? criteriaBuilder.gt(root.get(Product_.PRICE), price)
+                        : criteriaBuilder.lt(root.get(Product_.PRICE), price),
+                criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get(Product_.PRICE), price),
+                        criteriaBuilder.gt(root.get(Product_.ID), id)));
+    }
+
+    // keyset: sau id
+    public static Specification<Product> afterId(long id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.gt(root.get(Product_.ID), id);
+    }
+
+}
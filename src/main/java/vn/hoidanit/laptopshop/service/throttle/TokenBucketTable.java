@@ -0,0 +1,140 @@
+package vn.hoidanit.laptopshop.service.throttle;
+
+import java.security.SecureRandom;
+
+/*
+ * bảng token bucket kích thước cố định, dùng để rate limit theo key (ip, email...):
+ * - key được hash về long, không giữ lại String -> bộ nhớ cố định, không cấp phát khi gọi
+ * - bảng chia thành các set 4 slot; key mới chiếm slot trống, slot đã hồi đầy token (coi như rảnh),
+ *   hoặc slot lâu không dùng nhất trong set (LRU xấp xỉ)
+ * - đẩy ra 1 bucket chưa đầy thì key mới nhận số token còn lại của bucket đó, không được đầy lại:
+ *   spam key khác để đẩy key của nạn nhân ra không sinh thêm lượt thử
+ * - hash có seed ngẫu nhiên theo process: không tính trước được các key rơi vào cùng set với nạn nhân
+ * - mỗi nhóm set dùng chung 1 lock (striped), các request khác key hầu như không tranh chấp
+ */
+public class TokenBucketTable {
+
+    private static final int WAYS = 4;
+    private static final long SEED = new SecureRandom().nextLong();
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final int setMask;
+    private final int stripeMask;
+    private final Object[] locks;
+
+    private final long[] keys;
+    private final double[] tokens;
+    private final long[] stamps;
+
+    /*
+     * capacity: số request được phép dồn 1 lúc
+     * refillPerSecond: tốc độ hồi token
+     * entries, stripes: làm tròn lên lũy thừa của 2
+     */
+    public TokenBucketTable(int capacity, double refillPerSecond, int entries, int stripes) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity và refillPerSecond phải > 0");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+
+        int sets = powerOfTwo(Math.max(1, entries / WAYS));
+        this.setMask = sets - 1;
+        int stripeCount = Math.min(sets, powerOfTwo(Math.max(1, stripes)));
+        this.stripeMask = stripeCount - 1;
+        this.locks = new Object[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.locks[i] = new Object();
+        }
+
+        this.keys = new long[sets * WAYS];
+        this.tokens = new double[sets * WAYS];
+        this.stamps = new long[sets * WAYS];
+    }
+
+    // true nếu còn token (và đã trừ 1), false nếu phải từ chối
+    public boolean tryAcquire(long key, long nowNanos) {
+        if (key == 0) {
+            key = 1; // 0 = slot trống
+        }
+        int set = (int) (mix(key ^ SEED) & this.setMask);
+        int base = set * WAYS;
+
+        synchronized (this.locks[set & this.stripeMask]) {
+            int victim = base;
+            boolean freeFound = false;
+            for (int i = base; i < base + WAYS; i++) {
+                if (this.keys[i] == key) {
+                    return consume(i, nowNanos);
+                }
+                if (freeFound) {
+                    continue;
+                }
+                if (this.keys[i] == 0 || refilled(i, nowNanos) >= this.capacity) {
+                    victim = i;
+                    freeFound = true;
+                } else if (this.stamps[i] - this.stamps[victim] < 0) {
+                    victim = i;
+                }
+            }
+
+            this.tokens[victim] = this.keys[victim] == 0 ? this.capacity : refilled(victim, nowNanos);
+            this.keys[victim] = key;
+            this.stamps[victim] = nowNanos;
+            return consume(victim, nowNanos);
+        }
+    }
+
+    // số giây cần chờ để có lại 1 token, dùng cho header Retry-After
+    public long retryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(1 / (this.refillPerNano * 1_000_000_000d)));
+    }
+
+    private double refilled(int index, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - this.stamps[index]);
+        return Math.min(this.capacity, this.tokens[index] + elapsed * this.refillPerNano);
+    }
+
+    private boolean consume(int index, long nowNanos) {
+        long elapsed = nowNanos - this.stamps[index];
+        if (elapsed > 0) {
+            this.tokens[index] = Math.min(this.capacity, this.tokens[index] + elapsed * this.refillPerNano);
+            this.stamps[index] = nowNanos;
+        }
+        if (this.tokens[index] >= 1) {
+            this.tokens[index] -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /*
+     * hash 64 bit (FNV-1a, khởi tạo bằng SEED) của chuỗi, không tạo String mới
+     * ignoreCase: dùng cho email/username
+     */
+    public static long hash(CharSequence value, boolean ignoreCase) {
+        long h = 0xcbf29ce484222325L ^ SEED;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (ignoreCase) {
+                c = Character.toLowerCase(c);
+            }
+            h ^= c;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static int powerOfTwo(int value) {
+        int n = Integer.highestOneBit(value);
+        return n == value ? n : n << 1;
+    }
+}
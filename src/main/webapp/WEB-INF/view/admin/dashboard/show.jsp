@@ -1,5 +1,6 @@
 <%@page contentType="text/html" pageEncoding="UTF-8" %>
     <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+        <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
         <!DOCTYPE html>
         <html lang="en">
 
@@ -11,7 +12,7 @@
             <meta name="author" content="Hỏi Dân IT" />
             <title>Dashboard - Hỏi Dân IT</title>
             <link href="https://cdn.jsdelivr.net/npm/simple-datatables@7.1.2/dist/style.min.css" rel="stylesheet" />
-            <link href="css/styles.css" rel="stylesheet" />
+            <link href="<c:url value='/css/styles.css'/>" rel="stylesheet" />
             <script src="https://use.fontawesome.com/releases/v6.3.0/js/all.js" crossorigin="anonymous"></script>
         </head>
 
@@ -59,6 +60,53 @@
                                 </div>
 
                             </div>
+                            <div class="row">
+                                <div class="col-xl-4 col-md-6">
+                                    <div class="card mb-4">
+                                        <div class="card-header">Doanh thu</div>
+                                        <div class="card-body">
+                                            <fmt:formatNumber type="number" value="${revenue}" /> đ
+                                        </div>
+                                    </div>
+                                </div>
+                                <div class="col-xl-8 col-md-6">
+                                    <div class="card mb-4">
+                                        <div class="card-header">Order theo trạng thái</div>
+                                        <div class="card-body">
+                                            <c:forEach var="entry" items="${countOrdersByStatus}">
+                                                <span class="badge bg-secondary me-2">${entry.key}: ${entry.value}</span>
+                                            </c:forEach>
+                                        </div>
+                                    </div>
+                                </div>
+                            </div>
+                            <div class="row">
+                                <div class="col-xl-4">
+                                    <div class="card mb-4">
+                                        <div class="card-header">Realtime (60s gần nhất)</div>
+                                        <ul class="list-group list-group-flush">
+                                            <li class="list-group-item">Orders / phút:
+                                                <b id="liveOrdersPerMinute">-</b></li>
+                                            <li class="list-group-item">Doanh thu / phút:
+                                                <b id="liveRevenuePerMinute">-</b></li>
+                                            <li class="list-group-item">Add to cart / phút:
+                                                <b id="liveAddToCartPerMinute">-</b></li>
+                                            <li class="list-group-item">Session hoạt động:
+                                                <b id="liveActiveSessions">-</b></li>
+                                        </ul>
+                                    </div>
+                                </div>
+                                <div class="col-xl-8">
+                                    <div class="card mb-4">
+                                        <div class="card-header">
+                                            <i class="fas fa-chart-area me-1"></i>
+                                            Hoạt động realtime
+                                        </div>
+                                        <div class="card-body"><canvas id="liveMetricsChart" width="100%"
+                                                height="40"></canvas></div>
+                                    </div>
+                                </div>
+                            </div>
 
                         </div>
                     </main>
@@ -67,14 +115,13 @@
             </div>
             <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.2.3/dist/js/bootstrap.bundle.min.js"
                 crossorigin="anonymous"></script>
-            <script src="js/scripts.js"></script>
+            <script src="<c:url value='/js/scripts.js'/>"></script>
             <script src="https://cdnjs.cloudflare.com/ajax/libs/Chart.js/2.8.0/Chart.min.js"
                 crossorigin="anonymous"></script>
-            <script src="js/chart-area-demo.js"></script>
-            <script src="js/chart-bar-demo.js"></script>
+            <script src="<c:url value='/js/dashboard-live.js'/>"></script>
             <script src="https://cdn.jsdelivr.net/npm/simple-datatables@7.1.2/dist/umd/simple-datatables.min.js"
                 crossorigin="anonymous"></script>
-            <script src="js/datatables-simple-demo.js"></script>
+            <script src="<c:url value='/js/datatables-simple-demo.js'/>"></script>
         </body>
 
         </html>
\ No newline at end of file
@@ -24,6 +24,11 @@
                             <div class="sb-nav-link-icon"><i class="fas fa-tachometer-alt"></i></div>
                             Order
                         </a>
+
+                        <a class="nav-link" href="/admin/report">
+                            <div class="sb-nav-link-icon"><i class="fas fa-tachometer-alt"></i></div>
+                            Report
+                        </a>
                     </div>
                 </div>
                 <div class="sb-sidenav-footer">
@@ -12,7 +12,7 @@
                 <meta name="description" content="Hỏi Dân IT - Dự án laptopshop" />
                 <meta name="author" content="Hỏi Dân IT" />
                 <title>Manager Orders - Hỏi Dân IT</title>
-                <link href="/css/styles.css" rel="stylesheet" />
+                <link href="<c:url value='/css/styles.css'/>" rel="stylesheet" />
                 <script src="https://use.fontawesome.com/releases/v6.3.0/js/all.js" crossorigin="anonymous"></script>
             </head>
 
@@ -36,19 +36,85 @@
                                             </div>
 
                                             <hr />
+                                            <form method="get" action="/admin/order" class="row g-2 mb-3">
+                                                <div class="col-md-2">
+                                                    <select class="form-select" name="status">
+                                                        <option value="">All status</option>
+                                                        <c:forEach var="st"
+                                                            items="${['PENDING', 'SHIPPING', 'COMPLETE', 'CANCEL']}">
+                                                            <option value="${st}" ${param.status eq st ? 'selected' : ''}>
+                                                                ${st}</option>
+                                                        </c:forEach>
+                                                    </select>
+                                                </div>
+                                                <div class="col-md-2">
+                                                    <input type="date" class="form-control" name="fromDate"
+                                                        value="${param.fromDate}" title="From date" />
+                                                </div>
+                                                <div class="col-md-2">
+                                                    <input type="date" class="form-control" name="toDate"
+                                                        value="${param.toDate}" title="To date" />
+                                                </div>
+                                                <div class="col-md-2">
+                                                    <input type="email" class="form-control" name="email"
+                                                        value="${param.email}" placeholder="Customer email" />
+                                                </div>
+                                                <div class="col-md-1">
+                                                    <input type="number" class="form-control" name="minTotal"
+                                                        value="${param.minTotal}" placeholder="Min" />
+                                                </div>
+                                                <div class="col-md-1">
+                                                    <input type="number" class="form-control" name="maxTotal"
+                                                        value="${param.maxTotal}" placeholder="Max" />
+                                                </div>
+                                                <div class="col-md-2">
+                                                    <button class="btn btn-primary">Filter</button>
+                                                    <a href="/admin/order" class="btn btn-secondary">Reset</a>
+                                                </div>
+                                            </form>
+                                            <c:if test="${not empty bulkMessage}">
+                                                <div class="alert alert-info">${bulkMessage}</div>
+                                            </c:if>
+                                            <form method="post" action="/admin/order/bulk" id="bulkForm"
+                                                class="row g-2 mb-3">
+                                                <input type="hidden" name="${_csrf.parameterName}"
+                                                    value="${_csrf.token}" />
+                                                <div class="col-md-2">
+                                                    <select class="form-select" name="status">
+                                                        <c:forEach var="st"
+                                                            items="${['PENDING', 'SHIPPING', 'COMPLETE', 'CANCEL']}">
+                                                            <option value="${st}">${st}</option>
+                                                        </c:forEach>
+                                                    </select>
+                                                </div>
+                                                <div class="col-md-4">
+                                                    <button class="btn btn-warning" name="action"
+                                                        value="status">Update status</button>
+                                                    <button class="btn btn-danger" name="action" value="delete"
+                                                        onclick="return confirm('Xóa các order đã chọn?')">Delete
+                                                        selected</button>
+                                                </div>
+                                            </form>
                                             <table class=" table table-bordered table-hover">
                                                 <thead>
                                                     <tr>
+                                                        <th><input type="checkbox" class="form-check-input"
+                                                                onclick="document.querySelectorAll('input[name=ids]').forEach(c => c.checked = this.checked)" />
+                                                        </th>
                                                         <th>ID</th>
                                                         <th>Total Price</th>
                                                         <th>User</th>
                                                         <th>Status</th>
+                                                        <th>Created At</th>
                                                         <th>Action</th>
                                                     </tr>
                                                 </thead>
                                                 <tbody>
                                                     <c:forEach var="order" items="${orders}">
                                                         <tr>
+                                                            <td><input type="checkbox" class="form-check-input"
+                                                                    name="ids" value="${order.id}" form="bulkForm" />
+                                                            </td>
                                                             <th>${order.id}</th>
                                                             <td>
                                                                 <fmt:formatNumber type="number"
@@ -56,6 +122,7 @@
                                                             </td>
                                                             <td>${order.user.fullName}</td>
                                                             <td>${order.status}</td>
+                                                            <td>${order.createdAt}</td>
                                                             <td>
                                                                 <a href="/admin/order/${order.id}"
                                                                     class="btn btn-success">View</a>
@@ -73,23 +140,14 @@
                                             <nav aria-label="Page navigation example">
                                                 <ul class="pagination justify-content-center">
                                                     <li class="page-item">
-                                                        <a class="${1 eq currentPage ? 'disabled page-link' : 'page-link'}"
-                                                            href="/admin/order?page=${currentPage - 1}"
-                                                            aria-label="Previous">
+                                                        <a class="${isFirstPage ? 'disabled page-link' : 'page-link'}"
+                                                            href="/admin/order?${queryString}" aria-label="First">
                                                             <span aria-hidden="true">&laquo;</span>
                                                         </a>
                                                     </li>
-                                                    <c:forEach begin="0" end="${totalPages - 1}" varStatus="loop">
-                                                        <li class="page-item">
-                                                            <a class="${(loop.index + 1) eq currentPage ? 'active page-link' : 'page-link'}"
-                                                                href="/admin/order?page=${loop.index + 1}">
-                                                                ${loop.index + 1}
-                                                            </a>
-                                                        </li>
-                                                    </c:forEach>
                                                     <li class="page-item">
-                                                        <a class="${totalPages eq currentPage ? 'disabled page-link' : 'page-link'}"
-                                                            href="/admin/order?page=${currentPage + 1}"
+                                                        <a class="${empty nextCursor ? 'disabled page-link' : 'page-link'}"
+                                                            href="/admin/order?cursor=${nextCursor}${queryString}"
                                                             aria-label="Next">
                                                             <span aria-hidden="true">&raquo;</span>
                                                         </a>
@@ -108,7 +166,7 @@
                 </div>
                 <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.2.3/dist/js/bootstrap.bundle.min.js"
                     crossorigin="anonymous"></script>
-                <script src="/js/scripts.js"></script>
+                <script src="<c:url value='/js/scripts.js'/>"></script>
 
             </body>
 
@@ -13,7 +13,7 @@
                     <meta name="description" content="Hỏi Dân IT - Dự án laptopshop" />
                     <meta name="author" content="Hỏi Dân IT" />
                     <title>Update Order - Hỏi Dân IT</title>
-                    <link href="/css/styles.css" rel="stylesheet" />
+                    <link href="<c:url value='/css/styles.css'/>" rel="stylesheet" />
 
                     <script src="https://use.fontawesome.com/releases/v6.3.0/js/all.js"
                         crossorigin="anonymous"></script>
@@ -90,7 +90,7 @@
                     </div>
                     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.2.3/dist/js/bootstrap.bundle.min.js"
                         crossorigin="anonymous"></script>
-                    <script src="/js/scripts.js"></script>
+                    <script src="<c:url value='/js/scripts.js'/>"></script>
 
                 </body>
 
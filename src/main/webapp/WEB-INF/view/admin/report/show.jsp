@@ -0,0 +1,126 @@
+<%@page contentType="text/html" pageEncoding="UTF-8" %>
+    <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+        <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+
+            <!DOCTYPE html>
+            <html lang="en">
+
+            <head>
+                <meta charset="utf-8" />
+                <meta http-equiv="X-UA-Compatible" content="IE=edge" />
+                <meta name="viewport" content="width=device-width, initial-scale=1, shrink-to-fit=no" />
+                <meta name="description" content="Hỏi Dân IT - Dự án laptopshop" />
+                <meta name="author" content="Hỏi Dân IT" />
+                <title>Sales Report - Hỏi Dân IT</title>
+                <link href="<c:url value='/css/styles.css'/>" rel="stylesheet" />
+                <script src="https://use.fontawesome.com/releases/v6.3.0/js/all.js" crossorigin="anonymous"></script>
+            </head>
+
+            <body class="sb-nav-fixed">
+                <jsp:include page="../layout/header.jsp" />
+                <div id="layoutSidenav">
+                    <jsp:include page="../layout/sidebar.jsp" />
+                    <div id="layoutSidenav_content">
+                        <main>
+                            <div class="container-fluid px-4">
+                                <h1 class="mt-4">Sales Report</h1>
+                                <ol class="breadcrumb mb-4">
+                                    <li class="breadcrumb-item"><a href="/admin">Dashboard</a></li>
+                                    <li class="breadcrumb-item active">Report</li>
+                                </ol>
+                                <div class="mt-5">
+                                    <div class="row">
+                                        <div class="col-12 mx-auto">
+                                            <form method="get" action="/admin/report" class="row g-2 mb-3">
+                                                <div class="col-md-2">
+                                                    <select class="form-select" name="dimension">
+                                                        <c:forEach var="dim" items="${['PRODUCT', 'FACTORY', 'TARGET']}">
+                                                            <option value="${dim}" ${dimension eq dim ? 'selected' : ''}>
+                                                                ${dim}</option>
+                                                        </c:forEach>
+                                                    </select>
+                                                </div>
+                                                <div class="col-md-2">
+                                                    <input type="date" class="form-control" name="from" value="${from}" />
+                                                </div>
+                                                <div class="col-md-2">
+                                                    <input type="date" class="form-control" name="to" value="${to}" />
+                                                </div>
+                                                <div class="col-md-2">
+                                                    <button class="btn btn-primary">View</button>
+                                                </div>
+                                            </form>
+
+                                            <p>
+                                                Tổng doanh thu:
+                                                <b><fmt:formatNumber type="number" value="${totalRevenue}" /> đ</b>
+                                                - Số lượng bán: <b>${totalQuantity}</b>
+                                            </p>
+
+                                            <h3>Theo ${dimension}</h3>
+                                            <table class="table table-bordered table-hover">
+                                                <thead>
+                                                    <tr>
+                                                        <th>${dimension}</th>
+                                                        <th>Số lượng</th>
+                                                        <th>Số dòng order</th>
+                                                        <th>Doanh thu</th>
+                                                    </tr>
+                                                </thead>
+                                                <tbody>
+                                                    <c:if test="${empty totals}">
+                                                        <tr>
+                                                            <td colspan="4">Không có dữ liệu</td>
+                                                        </tr>
+                                                    </c:if>
+                                                    <c:forEach var="row" items="${totals}">
+                                                        <tr>
+                                                            <td>${row.label}</td>
+                                                            <td>${row.quantity}</td>
+                                                            <td>${row.orderLines}</td>
+                                                            <td>
+                                                                <fmt:formatNumber type="number" value="${row.revenue}" /> đ
+                                                            </td>
+                                                        </tr>
+                                                    </c:forEach>
+                                                </tbody>
+                                            </table>
+
+                                            <h3>Theo ngày</h3>
+                                            <table class="table table-bordered table-hover">
+                                                <thead>
+                                                    <tr>
+                                                        <th>Ngày</th>
+                                                        <th>Số lượng</th>
+                                                        <th>Số dòng order</th>
+                                                        <th>Doanh thu</th>
+                                                    </tr>
+                                                </thead>
+                                                <tbody>
+                                                    <c:forEach var="row" items="${daily}">
+                                                        <tr>
+                                                            <td>${row.label}</td>
+                                                            <td>${row.quantity}</td>
+                                                            <td>${row.orderLines}</td>
+                                                            <td>
+                                                                <fmt:formatNumber type="number" value="${row.revenue}" /> đ
+                                                            </td>
+                                                        </tr>
+                                                    </c:forEach>
+                                                </tbody>
+                                            </table>
+                                        </div>
+                                    </div>
+                                </div>
+                            </div>
+                        </main>
+                        <jsp:include page="../layout/footer.jsp" />
+                    </div>
+                </div>
+                <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.2.3/dist/js/bootstrap.bundle.min.js"
+                    crossorigin="anonymous"></script>
+                <script src="<c:url value='/js/scripts.js'/>"></script>
+
+            </body>
+
+            </html>
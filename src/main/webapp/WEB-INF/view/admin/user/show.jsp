@@ -1,5 +1,6 @@
 <%@page contentType="text/html" pageEncoding="UTF-8" %>
     <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+        <%@ taglib prefix="fn" uri="http://java.sun.com/jsp/jstl/functions" %>
         <!DOCTYPE html>
         <html lang="en">
 
@@ -10,7 +11,7 @@
             <meta name="description" content="Hỏi Dân IT - Dự án laptopshop" />
             <meta name="author" content="Hỏi Dân IT" />
             <title>Dashboard - Hỏi Dân IT</title>
-            <link href="/css/styles.css" rel="stylesheet" />
+            <link href="<c:url value='/css/styles.css'/>" rel="stylesheet" />
             <script src="https://use.fontawesome.com/releases/v6.3.0/js/all.js" crossorigin="anonymous"></script>
         </head>
 
@@ -35,12 +36,23 @@
                                         </div>
 
                                         <hr />
+                                        <form method="get" action="/admin/user" class="row g-2 mb-3">
+                                            <div class="col-md-6">
+                                                <input type="text" class="form-control" name="q" value="${fn:escapeXml(q)}"
+                                                    placeholder="Email, full name, phone" />
+                                            </div>
+                                            <div class="col-md-3">
+                                                <button class="btn btn-primary">Search</button>
+                                                <a href="/admin/user" class="btn btn-secondary">Reset</a>
+                                            </div>
+                                        </form>
                                         <table class=" table table-bordered table-hover">
                                             <thead>
                                                 <tr>
                                                     <th>ID</th>
                                                     <th>Email</th>
                                                     <th>Full Name</th>
+                                                    <th>Phone</th>
                                                     <th>Role</th>
                                                     <th>Action</th>
                                                 </tr>
@@ -52,7 +64,8 @@
                                                         <th>${user.id}</th>
                                                         <td>${user.email}</td>
                                                         <td>${user.fullName}</td>
-                                                        <td>${user.role.name}</td>
+                                                        <td>${user.phone}</td>
+                                                        <td>${user.roleName}</td>
                                                         <td>
                                                             <a href="/admin/user/${user.id}"
                                                                 class="btn btn-success">View</a>
@@ -69,24 +82,22 @@
                                         </table>
                                         <nav aria-label="Page navigation example">
                                             <ul class="pagination justify-content-center">
+                                                <c:url var="firstUrl" value="/admin/user">
+                                                    <c:param name="q" value="${q}" />
+                                                </c:url>
+                                                <c:url var="nextUrl" value="/admin/user">
+                                                    <c:param name="q" value="${q}" />
+                                                    <c:param name="cursor" value="${nextCursor}" />
+                                                </c:url>
                                                 <li class="page-item">
-                                                    <a class="${1 eq currentPage ? 'disabled page-link' : 'page-link'}"
-                                                        href="/admin/user?page=${currentPage - 1}"
-                                                        aria-label="Previous">
+                                                    <a class="${isFirstPage ? 'disabled page-link' : 'page-link'}"
+                                                        href="${firstUrl}" aria-label="First">
                                                         <span aria-hidden="true">&laquo;</span>
                                                     </a>
                                                 </li>
-                                                <c:forEach begin="0" end="${totalPages - 1}" varStatus="loop">
-                                                    <li class="page-item">
-                                                        <a class="${(loop.index + 1) eq currentPage ? 'active page-link' : 'page-link'}"
-                                                            href="/admin/user?page=${loop.index + 1}">
-                                                            ${loop.index + 1}
-                                                        </a>
-                                                    </li>
-                                                </c:forEach>
                                                 <li class="page-item">
-                                                    <a class="${totalPages eq currentPage ? 'disabled page-link' : 'page-link'}"
-                                                        href="/admin/user?page=${currentPage + 1}" aria-label="Next">
+                                                    <a class="${empty nextCursor ? 'disabled page-link' : 'page-link'}"
+                                                        href="${nextUrl}" aria-label="Next">
                                                         <span aria-hidden="true">&raquo;</span>
                                                     </a>
                                                 </li>
@@ -104,7 +115,7 @@
             </div>
             <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.2.3/dist/js/bootstrap.bundle.min.js"
                 crossorigin="anonymous"></script>
-            <script src="/js/scripts.js"></script>
+            <script src="<c:url value='/js/scripts.js'/>"></script>
 
         </body>
 
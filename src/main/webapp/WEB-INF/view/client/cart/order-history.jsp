@@ -1,4 +1,4 @@
-<%@page contentType="text/html" pageEncoding="UTF-8" %>
+<%@page contentType="text/html" pageEncoding="UTF-8" session="false" %>
     <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
         <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
 
@@ -25,15 +25,15 @@
                     rel="stylesheet">
 
                 <!-- Libraries Stylesheet -->
-                <link href="/client/lib/lightbox/css/lightbox.min.css" rel="stylesheet">
-                <link href="/client/lib/owlcarousel/assets/owl.carousel.min.css" rel="stylesheet">
+                <link href="<c:url value='/client/lib/lightbox/css/lightbox.min.css'/>" rel="stylesheet">
+                <link href="<c:url value='/client/lib/owlcarousel/assets/owl.carousel.min.css'/>" rel="stylesheet">
 
 
                 <!-- Customized Bootstrap Stylesheet -->
-                <link href="/client/css/bootstrap.min.css" rel="stylesheet">
+                <link href="<c:url value='/client/css/bootstrap.min.css'/>" rel="stylesheet">
 
                 <!-- Template Stylesheet -->
-                <link href="/client/css/style.css" rel="stylesheet">
+                <link href="<c:url value='/client/css/style.css'/>" rel="stylesheet">
             </head>
 
             <body>
@@ -95,15 +95,15 @@
                                             <tr>
                                                 <th scope="row">
                                                     <div class="d-flex align-items-center">
-                                                        <img src="/images/product/${orderDetail.product.image}"
+                                                        <img src="/images/product/${orderDetail.productImage}"
                                                             class="img-fluid me-5 rounded-circle"
                                                             style="width: 80px; height: 80px;" alt="">
                                                     </div>
                                                 </th>
                                                 <td>
                                                     <p class="mb-0 mt-4">
-                                                        <a href="/product/${orderDetail.product.id}" target="_blank">
-                                                            ${orderDetail.product.name}
+                                                        <a href="/product/${orderDetail.productId}" target="_blank">
+                                                            ${orderDetail.productName}
                                                         </a>
                                                     </p>
                                                 </td>
@@ -121,9 +121,9 @@
                                                     </div>
                                                 </td>
                                                 <td>
-                                                    <p class="mb-0 mt-4" data-cart-detail-id="${cartDetail.id}">
+                                                    <p class="mb-0 mt-4">
                                                         <fmt:formatNumber type="number"
-                                                            value="${orderDetail.price * orderDetail.quantity}" /> đ
+                                                            value="${orderDetail.lineTotal}" /> đ
                                                     </p>
                                                 </td>
                                                 <td></td>
@@ -136,6 +136,23 @@
                             </table>
                         </div>
 
+                        <c:if test="${not isFirstPage or not empty nextCursor}">
+                            <div class="pagination d-flex justify-content-center mt-5">
+                                <li class="page-item">
+                                    <a class="${isFirstPage ? 'disabled page-link' : 'page-link'}"
+                                        href="/order-history" aria-label="First">
+                                        <span aria-hidden="true">&laquo;</span>
+                                    </a>
+                                </li>
+                                <li class="page-item">
+                                    <a class="${empty nextCursor ? 'disabled page-link' : 'page-link'}"
+                                        href="/order-history?cursor=${nextCursor}" aria-label="Next">
+                                        <span aria-hidden="true">&raquo;</span>
+                                    </a>
+                                </li>
+                            </div>
+                        </c:if>
+
                     </div>
                 </div>
                 <!-- Cart Page End -->
@@ -152,13 +169,13 @@
                 <!-- JavaScript Libraries -->
                 <script src="https://ajax.googleapis.com/ajax/libs/jquery/3.6.4/jquery.min.js"></script>
                 <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.0.0/dist/js/bootstrap.bundle.min.js"></script>
-                <script src="/client/lib/easing/easing.min.js"></script>
-                <script src="/client/lib/waypoints/waypoints.min.js"></script>
-                <script src="/client/lib/lightbox/js/lightbox.min.js"></script>
-                <script src="/client/lib/owlcarousel/owl.carousel.min.js"></script>
+                <script src="<c:url value='/client/lib/easing/easing.min.js'/>"></script>
+                <script src="<c:url value='/client/lib/waypoints/waypoints.min.js'/>"></script>
+                <script src="<c:url value='/client/lib/lightbox/js/lightbox.min.js'/>"></script>
+                <script src="<c:url value='/client/lib/owlcarousel/owl.carousel.min.js'/>"></script>
 
                 <!-- Template Javascript -->
-                <script src="/client/js/main.js"></script>
+                <script src="<c:url value='/client/js/main.js'/>"></script>
             </body>
 
             </html>
\ No newline at end of file
@@ -1,4 +1,4 @@
-<%@page contentType="text/html" pageEncoding="UTF-8" %>
+<%@page contentType="text/html" pageEncoding="UTF-8" session="false" %>
     <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
         <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
             <%@ taglib prefix="form" uri="http://www.springframework.org/tags/form" %>
@@ -26,15 +26,15 @@
                         rel="stylesheet">
 
                     <!-- Libraries Stylesheet -->
-                    <link href="/client/lib/lightbox/css/lightbox.min.css" rel="stylesheet">
-                    <link href="/client/lib/owlcarousel/assets/owl.carousel.min.css" rel="stylesheet">
+                    <link href="<c:url value='/client/lib/lightbox/css/lightbox.min.css'/>" rel="stylesheet">
+                    <link href="<c:url value='/client/lib/owlcarousel/assets/owl.carousel.min.css'/>" rel="stylesheet">
 
 
                     <!-- Customized Bootstrap Stylesheet -->
-                    <link href="/client/css/bootstrap.min.css" rel="stylesheet">
+                    <link href="<c:url value='/client/css/bootstrap.min.css'/>" rel="stylesheet">
 
                     <!-- Template Stylesheet -->
-                    <link href="/client/css/style.css" rel="stylesheet">
+                    <link href="<c:url value='/client/css/style.css'/>" rel="stylesheet">
                 </head>
 
                 <body>
@@ -84,15 +84,15 @@
                                             <tr>
                                                 <th scope="row">
                                                     <div class="d-flex align-items-center">
-                                                        <img src="/images/product/${cartDetail.product.image}"
+                                                        <img src="/images/product/${cartDetail.productImage}"
                                                             class="img-fluid me-5 rounded-circle"
                                                             style="width: 80px; height: 80px;" alt="">
                                                     </div>
                                                 </th>
                                                 <td>
                                                     <p class="mb-0 mt-4">
-                                                        <a href="/product/${cartDetail.product.id}" target="_blank">
-                                                            ${cartDetail.product.name}
+                                                        <a href="/product/${cartDetail.productId}" target="_blank">
+                                                            ${cartDetail.productName}
                                                         </a>
                                                     </p>
                                                 </td>
@@ -126,7 +126,7 @@
                                                 <td>
                                                     <p class="mb-0 mt-4" data-cart-detail-id="${cartDetail.id}">
                                                         <fmt:formatNumber type="number"
-                                                            value="${cartDetail.price * cartDetail.quantity}" /> đ
+                                                            value="${cartDetail.lineTotal}" /> đ
                                                     </p>
                                                 </td>
                                                 <td>
@@ -219,13 +219,13 @@
                     <!-- JavaScript Libraries -->
                     <script src="https://ajax.googleapis.com/ajax/libs/jquery/3.6.4/jquery.min.js"></script>
                     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.0.0/dist/js/bootstrap.bundle.min.js"></script>
-                    <script src="/client/lib/easing/easing.min.js"></script>
-                    <script src="/client/lib/waypoints/waypoints.min.js"></script>
-                    <script src="/client/lib/lightbox/js/lightbox.min.js"></script>
-                    <script src="/client/lib/owlcarousel/owl.carousel.min.js"></script>
+                    <script src="<c:url value='/client/lib/easing/easing.min.js'/>"></script>
+                    <script src="<c:url value='/client/lib/waypoints/waypoints.min.js'/>"></script>
+                    <script src="<c:url value='/client/lib/lightbox/js/lightbox.min.js'/>"></script>
+                    <script src="<c:url value='/client/lib/owlcarousel/owl.carousel.min.js'/>"></script>
 
                     <!-- Template Javascript -->
-                    <script src="/client/js/main.js"></script>
+                    <script src="<c:url value='/client/js/main.js'/>"></script>
                 </body>
 
                 </html>
\ No newline at end of file
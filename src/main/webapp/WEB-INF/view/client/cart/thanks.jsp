@@ -1,4 +1,4 @@
-<%@page contentType="text/html" pageEncoding="UTF-8" %>
+<%@page contentType="text/html" pageEncoding="UTF-8" session="false" %>
     <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
         <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
             <html lang="en">
@@ -21,15 +21,15 @@
                     rel="stylesheet">
 
                 <!-- Libraries Stylesheet -->
-                <link href="/client/lib/lightbox/css/lightbox.min.css" rel="stylesheet">
-                <link href="/client/lib/owlcarousel/assets/owl.carousel.min.css" rel="stylesheet">
+                <link href="<c:url value='/client/lib/lightbox/css/lightbox.min.css'/>" rel="stylesheet">
+                <link href="<c:url value='/client/lib/owlcarousel/assets/owl.carousel.min.css'/>" rel="stylesheet">
 
 
                 <!-- Customized Bootstrap Stylesheet -->
-                <link href="/client/css/bootstrap.min.css" rel="stylesheet">
+                <link href="<c:url value='/client/css/bootstrap.min.css'/>" rel="stylesheet">
 
                 <!-- Template Stylesheet -->
-                <link href="/client/css/style.css" rel="stylesheet">
+                <link href="<c:url value='/client/css/style.css'/>" rel="stylesheet">
 
             </head>
 
@@ -69,13 +69,13 @@
                 <!-- JavaScript Libraries -->
                 <script src="https://ajax.googleapis.com/ajax/libs/jquery/3.6.4/jquery.min.js"></script>
                 <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.0.0/dist/js/bootstrap.bundle.min.js"></script>
-                <script src="/client/lib/easing/easing.min.js"></script>
-                <script src="/client/lib/waypoints/waypoints.min.js"></script>
-                <script src="/client/lib/lightbox/js/lightbox.min.js"></script>
-                <script src="/client/lib/owlcarousel/owl.carousel.min.js"></script>
+                <script src="<c:url value='/client/lib/easing/easing.min.js'/>"></script>
+                <script src="<c:url value='/client/lib/waypoints/waypoints.min.js'/>"></script>
+                <script src="<c:url value='/client/lib/lightbox/js/lightbox.min.js'/>"></script>
+                <script src="<c:url value='/client/lib/owlcarousel/owl.carousel.min.js'/>"></script>
 
                 <!-- Template Javascript -->
-                <script src="/client/js/main.js"></script>
+                <script src="<c:url value='/client/js/main.js'/>"></script>
             </body>
 
             </html>
\ No newline at end of file
@@ -1,4 +1,4 @@
-<%@page contentType="text/html" pageEncoding="UTF-8" %>
+<%@page contentType="text/html" pageEncoding="UTF-8" session="false" %>
     <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
         <!-- Hero Start -->
         <div class="container-fluid py-5 mb-5 hero-header">
@@ -12,17 +12,17 @@
                         <div id="carouselId" class="carousel slide position-relative" data-bs-ride="carousel">
                             <div class="carousel-inner" role="listbox">
                                 <div class="carousel-item active rounded">
-                                    <img src="/client/img/hero-img-1.png"
+                                    <img src="<c:url value='/client/img/hero-img-1.png'/>"
                                         class="img-fluid w-100 h-100 bg-secondary rounded" alt="First slide">
                                     <a href="#" class="btn px-4 py-2 text-white rounded">Gaming</a>
                                 </div>
                                 <div class="carousel-item rounded">
-                                    <img src="/client/img/hero-img-3.png" class="img-fluid w-100 h-100 rounded"
+                                    <img src="<c:url value='/client/img/hero-img-3.png'/>" class="img-fluid w-100 h-100 rounded"
                                         alt="Second slide">
                                     <a href="#" class="btn px-4 py-2 text-white rounded">Laptop</a>
                                 </div>
                                 <div class="carousel-item rounded">
-                                    <img src="/client/img/hero-img-2.png" class="img-fluid w-100 h-100 rounded"
+                                    <img src="<c:url value='/client/img/hero-img-2.png'/>" class="img-fluid w-100 h-100 rounded"
                                         alt="Second slide">
                                     <a href="#" class="btn px-4 py-2 text-white rounded">Phụ kiện</a>
                                 </div>
@@ -1,4 +1,4 @@
-<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
 <html>
   <head>
     <title>Chatbot</title>
@@ -74,6 +74,7 @@
         color: #333;
         margin-right: auto;
         text-align: left;
+        white-space: pre-line;
       }
 
       #chatbot-input-container {
@@ -128,11 +129,11 @@
             placeholder="Type your message..."
           />
           <button id="sendButton" onclick="sendMessage()">Send</button>
+          <input type="hidden" id="chatCsrf" data-header="${_csrf.headerName}" value="${_csrf.token}" />
         </div>
       </div>
     </div>
 
-    <script src="https://cdn.jsdelivr.net/npm/axios/dist/axios.min.js"></script>
     <script>
       const chatbox = document.getElementById("chatbox");
       const chatbotIcon = document.getElementById("chatbot-icon");
@@ -180,19 +181,64 @@
 
         chatbox.scrollTop = chatbox.scrollHeight;
 
+        // gọi qua server (/api/v1/chat), nhận SSE: token -> nối dần vào tin nhắn, done -> history mới
+        const csrf = document.getElementById("chatCsrf");
+        let answer = "";
         try {
-          const { data } = await axios.post("http://localhost:8000/chat", {
-            query: userInput,
-            history: chatHistory,
+          const response = await fetch("/api/v1/chat", {
+            method: "POST",
+            headers: {
+              "Content-Type": "application/json",
+              Accept: "text/event-stream",
+              [csrf.dataset.header]: csrf.value,
+            },
+            // server giới hạn history (ChatRequestDTO): chỉ gửi các lượt gần nhất
+            body: JSON.stringify({
+              query: userInput,
+              history: Array.isArray(chatHistory) ? chatHistory.slice(-10) : chatHistory,
+            }),
           });
+          if (response.status === 429) {
+            thinkingMessage.textContent = await response.text();
+            return;
+          }
+          if (!response.ok || !response.body) {
+            throw new Error("HTTP " + response.status);
+          }
 
-          const formattedResponse = data.result
-            .replace(/\*\*/g, "")
-            .replace(/\n/g, "<br>");
+          const reader = response.body.getReader();
+          const decoder = new TextDecoder();
+          let buffer = "";
+          while (true) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true });
 
-          thinkingMessage.innerHTML = formattedResponse;
+            let boundary;
+            while ((boundary = buffer.indexOf("\n\n")) >= 0) {
+              const block = buffer.slice(0, boundary);
+              buffer = buffer.slice(boundary + 2);
 
-          chatHistory = data.history;
+              let event = "message";
+              let data = "";
+              block.split("\n").forEach((line) => {
+                if (line.startsWith("event:")) event = line.slice(6).trim();
+                else if (line.startsWith("data:")) data += line.slice(5);
+              });
+              if (!data) continue;
+              const payload = JSON.parse(data);
+
+              if (event === "token") {
+                answer += payload.text;
+                thinkingMessage.textContent = answer.replace(/\*\*/g, "");
+                chatbox.scrollTop = chatbox.scrollHeight;
+              } else if (event === "done") {
+                chatHistory = payload.history;
+              } else if (event === "error") {
+                thinkingMessage.textContent = payload.message;
+              }
+            }
+          }
         } catch (error) {
           console.error("Error:", error);
           thinkingMessage.textContent =
@@ -1,4 +1,4 @@
-<%@page contentType="text/html" pageEncoding="UTF-8" %>
+<%@page contentType="text/html" pageEncoding="UTF-8" session="false" %>
     <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
         <!-- Navbar start -->
         <div class="container-fluid fixed-top">
@@ -19,12 +19,14 @@
                         </div>
                         <div class="d-flex m-3 me-0">
                             <c:if test="${not empty pageContext.request.userPrincipal}">
+                                <%-- page session="false": chỉ đọc session đã có, không tạo mới --%>
+                                <c:set var="userSession" value="${pageContext.request.getSession(false)}" />
                                 <a href="/cart" class="position-relative me-4 my-auto">
                                     <i class="fa fa-shopping-bag fa-2x"></i>
-                                    <span
+                                    <span id="cartBadge"
                                         class="position-absolute bg-secondary rounded-circle d-flex align-items-center justify-content-center text-dark px-1"
                                         style="top: -5px; left: 15px; height: 20px; min-width: 20px;">
-                                        ${sessionScope.sum}
+                                        ${userSession.getAttribute('sum')}
                                     </span>
                                 </a>
                                 <div class="dropdown my-auto">
@@ -37,9 +39,9 @@
                                     <ul class="dropdown-menu dropdown-menu-end p-4" aria-labelledby="dropdownMenuLink">
                                         <li class="d-flex align-items-center flex-column" style="min-width: 300px;">
                                             <img style="width: 150px; height: 150px; border-radius: 50%; overflow: hidden;"
-                                                src="/images/avatar/${sessionScope.avatar}" />
+                                                src="/images/avatar/${userSession.getAttribute('avatar')}" />
                                             <div class="text-center my-3">
-                                                <c:out value="${sessionScope.fullName}" />
+                                                <c:out value="${userSession.getAttribute('fullName')}" />
                                             </div>
                                         </li>
 
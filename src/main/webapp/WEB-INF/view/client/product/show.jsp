@@ -1,4 +1,4 @@
-<%@page contentType="text/html" pageEncoding="UTF-8" %>
+<%@page contentType="text/html" pageEncoding="UTF-8" session="false" %>
     <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
         <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
             <%@ taglib prefix="form" uri="http://www.springframework.org/tags/form" %>
@@ -26,15 +26,15 @@
                         rel="stylesheet">
 
                     <!-- Libraries Stylesheet -->
-                    <link href="/client/lib/lightbox/css/lightbox.min.css" rel="stylesheet">
-                    <link href="/client/lib/owlcarousel/assets/owl.carousel.min.css" rel="stylesheet">
+                    <link href="<c:url value='/client/lib/lightbox/css/lightbox.min.css'/>" rel="stylesheet">
+                    <link href="<c:url value='/client/lib/owlcarousel/assets/owl.carousel.min.css'/>" rel="stylesheet">
 
 
                     <!-- Customized Bootstrap Stylesheet -->
-                    <link href="/client/css/bootstrap.min.css" rel="stylesheet">
+                    <link href="<c:url value='/client/css/bootstrap.min.css'/>" rel="stylesheet">
 
                     <!-- Template Stylesheet -->
-                    <link href="/client/css/style.css" rel="stylesheet">
+                    <link href="<c:url value='/client/css/style.css'/>" rel="stylesheet">
                 </head>
 
                 <body>
@@ -204,7 +204,11 @@
                                                     <div class="rounded position-relative fruite-item">
                                                         <div class="fruite-img">
                                                             <img src="/images/product/${product.image}"
-                                                                class="img-fluid w-100 rounded-top" alt="">
+                                                                <c:if test="${not empty product.imageWidths}">
+                                                                    srcset="<c:forTokens items="${product.imageWidths}" delims="," var="w" varStatus="s">/images/product/${product.image}.${w}w.jpg ${w}w${s.last ? '' : ', '}</c:forTokens><c:if test="${product.imageSourceWidth gt 0}">, /images/product/${product.image} ${product.imageSourceWidth}w</c:if>"
+                                                                    sizes="(min-width: 992px) 280px, (min-width: 768px) 33vw, 100vw"
+                                                                </c:if>
+                                                                loading="lazy" class="img-fluid w-100 rounded-top" alt="">
                                                         </div>
                                                         <div class="text-white bg-secondary px-3 py-1 rounded position-absolute"
                                                             style="top: 10px; left: 10px;">Laptop
@@ -228,7 +232,8 @@
                                                                     đ
                                                                 </p>
                                                                 <form action="/add-product-to-cart/${product.id}"
-                                                                    method="post">
+                                                                    method="post" class="add-to-cart-form"
+                                                                    data-product-id="${product.id}">
                                                                     <input type="hidden" name="${_csrf.parameterName}"
                                                                         value="${_csrf.token}" />
 
@@ -291,13 +296,13 @@
                     <!-- JavaScript Libraries -->
                     <script src="https://ajax.googleapis.com/ajax/libs/jquery/3.6.4/jquery.min.js"></script>
                     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.0.0/dist/js/bootstrap.bundle.min.js"></script>
-                    <script src="/client/lib/easing/easing.min.js"></script>
-                    <script src="/client/lib/waypoints/waypoints.min.js"></script>
-                    <script src="/client/lib/lightbox/js/lightbox.min.js"></script>
-                    <script src="/client/lib/owlcarousel/owl.carousel.min.js"></script>
+                    <script src="<c:url value='/client/lib/easing/easing.min.js'/>"></script>
+                    <script src="<c:url value='/client/lib/waypoints/waypoints.min.js'/>"></script>
+                    <script src="<c:url value='/client/lib/lightbox/js/lightbox.min.js'/>"></script>
+                    <script src="<c:url value='/client/lib/owlcarousel/owl.carousel.min.js'/>"></script>
 
                     <!-- Template Javascript -->
-                    <script src="/client/js/main.js"></script>
+                    <script src="<c:url value='/client/js/main.js'/>"></script>
                 </body>
 
                 </html>
\ No newline at end of file
@@ -15,7 +15,7 @@
     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.2/dist/js/bootstrap.bundle.min.js"></script>
 
     <script src="https://ajax.googleapis.com/ajax/libs/jquery/3.7.1/jquery.min.js"></script>
-    <%-- <link rel="stylesheet" href="/css/demo.css"> --%>
+    <%-- <link rel="stylesheet" href="<c:url value='/css/demo.css'/>"> --%>
 </head>
 <body>
     Hello Jsp
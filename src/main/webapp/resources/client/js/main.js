@@ -289,6 +289,55 @@
         window.location.href = currentUrl.toString();
     });
 
+    //add to cart (AJAX): chỉ cập nhật badge, không reload trang
+    $(document).on('submit', '.add-to-cart-form', function (event) {
+        const form = this;
+        const badge = $('#cartBadge');
+        // chưa đăng nhập: submit form như cũ để server chuyển sang trang login
+        if (badge.length === 0 || !window.fetch) {
+            return;
+        }
+        event.preventDefault();
+
+        const body = new URLSearchParams(new FormData(form));
+        body.set('productId', $(form).data('product-id'));
+        if (!body.has('quantity')) {
+            body.set('quantity', '1');
+        }
+        const button = $(form).find('button');
+        button.prop('disabled', true);
+        $(form).find('.add-to-cart-error').remove();
+
+        fetch('/api/v1/cart/items', {
+            method: 'POST',
+            headers: { 'Accept': 'application/json' },
+            body: body
+        }).then(function (response) {
+            if (response.status === 401) {
+                window.location.href = '/login';
+                return null;
+            }
+            if (!response.ok) {
+                // server đã nhận request (5xx, 403 csrf...): submit lại có thể thêm sản phẩm 2 lần
+                $(form).append('<div class="add-to-cart-error small text-danger mt-1">'
+                    + 'Không thể thêm vào giỏ hàng, vui lòng thử lại</div>');
+                return null;
+            }
+            return response.json();
+        }).then(function (state) {
+            if (state) {
+                badge.text(state.cartSum);
+            }
+        }).catch(function (error) {
+            // chỉ lỗi mạng (fetch reject bằng TypeError) mới fallback submit form bình thường
+            if (error instanceof TypeError) {
+                form.submit();
+            }
+        }).finally(function () {
+            button.prop('disabled', false);
+        });
+    });
+
     //handle auto checkbox after page loading
     // Parse the URL parameters
     const params = new URLSearchParams(window.location.search);
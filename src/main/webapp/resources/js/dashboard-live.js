@@ -0,0 +1,64 @@
+// Live dashboard metrics over Server-Sent Events
+Chart.defaults.global.defaultFontFamily = '-apple-system,system-ui,BlinkMacSystemFont,"Segoe UI",Roboto,"Helvetica Neue",Arial,sans-serif';
+Chart.defaults.global.defaultFontColor = '#292b2c';
+
+(function () {
+  var MAX_POINTS = 60;
+  var formatter = new Intl.NumberFormat('vi-VN');
+
+  var liveChart = new Chart(document.getElementById("liveMetricsChart"), {
+    type: 'line',
+    data: {
+      labels: [],
+      datasets: [{
+        label: "Orders / phút",
+        lineTension: 0.3,
+        backgroundColor: "rgba(2,117,216,0.2)",
+        borderColor: "rgba(2,117,216,1)",
+        pointRadius: 0,
+        data: [],
+      }, {
+        label: "Add to cart / phút",
+        lineTension: 0.3,
+        backgroundColor: "rgba(220,53,69,0.1)",
+        borderColor: "rgba(220,53,69,1)",
+        pointRadius: 0,
+        data: [],
+      }],
+    },
+    options: {
+      animation: false,
+      scales: {
+        xAxes: [{ gridLines: { display: false }, ticks: { maxTicksLimit: 7 } }],
+        yAxes: [{ ticks: { min: 0, maxTicksLimit: 5 } }],
+      },
+    }
+  });
+
+  function setText(id, value) {
+    var el = document.getElementById(id);
+    if (el) {
+      el.textContent = value;
+    }
+  }
+
+  var source = new EventSource("/admin/metrics/stream");
+  source.addEventListener("metrics", function (e) {
+    var m = JSON.parse(e.data);
+
+    setText("liveOrdersPerMinute", m.ordersPerMinute);
+    setText("liveRevenuePerMinute", formatter.format(m.revenuePerMinute) + " đ");
+    setText("liveAddToCartPerMinute", m.addToCartPerMinute);
+    setText("liveActiveSessions", m.activeSessions);
+
+    var labels = liveChart.data.labels;
+    labels.push(new Date(m.timestamp).toLocaleTimeString());
+    liveChart.data.datasets[0].data.push(m.ordersPerMinute);
+    liveChart.data.datasets[1].data.push(m.addToCartPerMinute);
+    if (labels.length > MAX_POINTS) {
+      labels.shift();
+      liveChart.data.datasets.forEach(function (ds) { ds.data.shift(); });
+    }
+    liveChart.update();
+  });
+})();
@@ -0,0 +1,86 @@
+package vn.hoidanit.laptopshop.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import vn.hoidanit.laptopshop.config.BoundedPasswordEncoder;
+
+/*
+ * đo số lượt đăng nhập (bcrypt matches) / giây theo số core dành cho pool hash
+ * không phải unit test, chạy tay:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=vn.hoidanit.laptopshop.benchmark.PasswordEncoderBenchmark \
+ *       -Dexec.args="10 200"
+ * args: [bcrypt strength] [số lượt login mỗi lần đo]
+ */
+public class PasswordEncoderBenchmark {
+
+    // số thread "tomcat" gửi login cùng lúc
+    private static final int CLIENT_THREADS = 64;
+
+    public static void main(String[] args) throws Exception {
+        int strength = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int logins = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int maxCores = Runtime.getRuntime().availableProcessors();
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        String hash = bcrypt.encode("123456");
+
+        System.out.printf("bcrypt strength=%d, logins/run=%d, clients=%d%n", strength, logins, CLIENT_THREADS);
+        System.out.printf("%-6s %-12s %-10s %-10s%n", "cores", "logins/sec", "rejected", "elapsed");
+
+        // warm up JIT
+        run(bcrypt, hash, 1, Math.min(logins, 20));
+
+        for (int cores = 1; cores <= maxCores; cores = cores < 2 ? cores + 1 : cores * 2) {
+            Result result = run(bcrypt, hash, cores, logins);
+            System.out.printf("%-6d %-12.1f %-10d %-10s%n", cores,
+                    result.ok * 1000.0 / result.elapsedMillis, result.rejected,
+                    result.elapsedMillis + "ms");
+        }
+    }
+
+    private static Result run(BCryptPasswordEncoder bcrypt, String hash, int cores, int logins)
+            throws InterruptedException {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(bcrypt, cores, logins,
+                Duration.ofMinutes(5));
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+        CountDownLatch done = new CountDownLatch(logins);
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Runnable> tasks = new ArrayList<>(logins);
+        for (int i = 0; i < logins; i++) {
+            tasks.add(() -> {
+                try {
+                    if (encoder.matches("123456", hash)) {
+                        ok.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    rejected.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        tasks.forEach(clients::execute);
+        done.await();
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        clients.shutdownNow();
+        encoder.destroy();
+        return new Result(ok.get(), rejected.get(), elapsedMillis);
+    }
+
+    private record Result(int ok, int rejected, long elapsedMillis) {
+    }
+}
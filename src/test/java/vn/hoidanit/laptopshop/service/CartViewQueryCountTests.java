@@ -0,0 +1,96 @@
+package vn.hoidanit.laptopshop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import vn.hoidanit.laptopshop.domain.Cart;
+import vn.hoidanit.laptopshop.domain.CartDetail;
+import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.domain.dto.CartViewDTO;
+
+/*
+ * trang cart / checkout: cả giỏ hàng (nhiều dòng, nhiều sản phẩm) chỉ tốn đúng 1 câu SQL
+ * chạy trên DB cấu hình trong application.properties, mỗi test rollback sau khi chạy
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProductService.class)
+class CartViewQueryCountTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private LiveMetricsService liveMetricsService;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        this.user = TestData.user(this.entityManager, "cart-view");
+        Cart cart = new Cart();
+        cart.setUser(this.user);
+        cart.setSum(3);
+        this.entityManager.persist(cart);
+        for (int i = 1; i <= 3; i++) {
+            Product product = TestData.product(this.entityManager, "cart-view-" + i, 1000 * i);
+            CartDetail detail = new CartDetail();
+            detail.setCart(cart);
+            detail.setProduct(product);
+            detail.setQuantity(i);
+            detail.setPrice(product.getPrice());
+            this.entityManager.persist(detail);
+        }
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        this.statistics = this.entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        this.statistics.clear();
+    }
+
+    @Test
+    void loadsCartViewWithOneStatement() {
+        User currentUser = new User();
+        currentUser.setId(this.user.getId());
+
+        CartViewDTO cart = this.productService.fetchCartViewByUser(currentUser);
+
+        // JSP đọc tên / ảnh sản phẩm từ DTO, không còn lazy load
+        cart.getCartDetails().forEach(line -> assertThat(line.getProductName()).startsWith("cart-view-"));
+        assertThat(cart.getCartDetails()).hasSize(3);
+        assertThat(cart.getTotalQuantity()).isEqualTo(6);
+        assertThat(cart.getTotalPrice()).isEqualTo(1000 * 1 + 2000 * 2 + 3000 * 3);
+        assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyCartStillOneStatement() {
+        User stranger = TestData.user(this.entityManager, "cart-view-empty");
+        this.entityManager.flush();
+        this.statistics.clear();
+
+        CartViewDTO cart = this.productService.fetchCartViewByUser(stranger);
+
+        assertThat(cart.isEmpty()).isTrue();
+        assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
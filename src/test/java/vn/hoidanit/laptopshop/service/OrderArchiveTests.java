@@ -0,0 +1,103 @@
+package vn.hoidanit.laptopshop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import vn.hoidanit.laptopshop.config.CacheConfig;
+import vn.hoidanit.laptopshop.domain.ArchivedOrder;
+import vn.hoidanit.laptopshop.domain.Order;
+import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.User;
+
+/*
+ * chỉ archive order đủ tuổi và đã rollup vào sales_daily;
+ * order tạo trước khi có cột created_at được gán ngày (không bị coi là order cũ)
+ * chỉ đụng dữ liệu của test: rollup bắt đầu sau order_detail có sẵn,
+ * archive chỉ lấy order cũ hơn 10 năm (order mẫu được lùi 11 năm)
+ * (batch backfill created_at đủ lớn để gồm cả order cũ chưa được gán ngày của DB dùng chung)
+ */
+@DataJpaTest(properties = {
+        "laptopshop.rollup.commit-lag=PT0S",
+        "laptopshop.rollup.batch-size=1000",
+        "laptopshop.rollup.max-batches-per-run=1",
+        "laptopshop.archive.age=P3650D",
+        "laptopshop.archive.batch-size=100",
+        "laptopshop.archive.max-batches-per-run=1",
+        "laptopshop.archive.batch-pause=PT0S"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ OrderArchiveService.class, SalesRollupService.class, CacheConfig.class })
+class OrderArchiveTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    private Order oldOrder;
+    private Order legacyOrder;
+
+    @BeforeEach
+    void setUp() {
+        TestData.startRollupAfterExistingRows(this.entityManager);
+        User user = TestData.user(this.entityManager, "archive");
+        Product product = TestData.product(this.entityManager, "archive", 1000);
+        this.oldOrder = TestData.order(this.entityManager, user, Order.STATUS_COMPLETE, product);
+        this.legacyOrder = TestData.order(this.entityManager, user, Order.STATUS_COMPLETE, product);
+        this.entityManager.flush();
+        this.setCreatedAt(this.oldOrder, LocalDateTime.now().minusYears(11));
+        // order tạo trước khi có cột created_at
+        this.entityManager.getEntityManager()
+                .createNativeQuery("update orders set created_at = null where id = :id")
+                .setParameter("id", this.legacyOrder.getId())
+                .executeUpdate();
+        this.entityManager.clear();
+    }
+
+    @Test
+    void waitsForRollupThenArchivesOldOrder() {
+        this.orderArchiveService.archiveOldOrders();
+        this.entityManager.clear();
+        assertThat(this.entityManager.find(Order.class, this.oldOrder.getId())).isNotNull();
+
+        this.salesRollupService.rollup();
+        this.orderArchiveService.archiveOldOrders();
+        this.entityManager.clear();
+
+        assertThat(this.entityManager.find(Order.class, this.oldOrder.getId())).isNull();
+        assertThat(this.entityManager.find(ArchivedOrder.class, this.oldOrder.getId())).isNotNull();
+    }
+
+    @Test
+    void backfillsLegacyOrderInsteadOfArchivingIt() {
+        this.salesRollupService.rollup();
+        this.orderArchiveService.archiveOldOrders();
+        this.entityManager.clear();
+
+        Order legacy = this.entityManager.find(Order.class, this.legacyOrder.getId());
+        assertThat(legacy).isNotNull();
+        assertThat(legacy.getCreatedAt()).isNotNull();
+        assertThat(this.entityManager.find(ArchivedOrder.class, this.legacyOrder.getId())).isNull();
+    }
+
+    private void setCreatedAt(Order order, LocalDateTime createdAt) {
+        this.entityManager.getEntityManager()
+                .createNativeQuery("update orders set created_at = :createdAt where id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", order.getId())
+                .executeUpdate();
+    }
+}
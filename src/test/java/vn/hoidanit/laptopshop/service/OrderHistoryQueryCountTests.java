@@ -0,0 +1,90 @@
+package vn.hoidanit.laptopshop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+
+import vn.hoidanit.laptopshop.config.CacheConfig;
+import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.domain.dto.OrderHistoryDTO;
+
+/*
+ * lịch sử mua hàng: số câu SQL cố định theo trang (không phụ thuộc số order / số dòng),
+ * trang đầu lần 2 lấy từ cache -> 0 câu
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ OrderService.class, DashboardStatsService.class, SalesRollupService.class, CacheConfig.class })
+class OrderHistoryQueryCountTests {
+
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderService orderService;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        this.user = TestData.user(this.entityManager, "order-history");
+        Product first = TestData.product(this.entityManager, "order-history-1", 1000);
+        Product second = TestData.product(this.entityManager, "order-history-2", 2000);
+        for (int i = 0; i < 3; i++) {
+            TestData.order(this.entityManager, this.user, "PENDING", first, second);
+        }
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        this.statistics = this.entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        this.statistics.clear();
+    }
+
+    @Test
+    void firstPageIsBoundedThenCached() {
+        Slice<OrderHistoryDTO> page = this.orderService.fetchOrderHistory(this.user.getId(), null, PAGE_SIZE);
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.hasNext()).isTrue();
+        page.getContent().forEach(order -> assertThat(order.getOrderDetails()).hasSize(2));
+        // header order + header archive + toàn bộ dòng của trang (archive không có order nào -> bỏ qua)
+        assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        this.statistics.clear();
+        Slice<OrderHistoryDTO> cached = this.orderService.fetchOrderHistory(this.user.getId(), null, PAGE_SIZE);
+
+        assertThat(cached.getContent()).isEqualTo(page.getContent());
+        assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(0);
+    }
+
+    @Test
+    void nextPageIsNotCached() {
+        Slice<OrderHistoryDTO> first = this.orderService.fetchOrderHistory(this.user.getId(), null, PAGE_SIZE);
+        long cursor = first.getContent().get(PAGE_SIZE - 1).getId();
+
+        this.statistics.clear();
+        Slice<OrderHistoryDTO> next = this.orderService.fetchOrderHistory(this.user.getId(), cursor, PAGE_SIZE);
+
+        assertThat(next.getContent()).hasSize(1);
+        assertThat(next.hasNext()).isFalse();
+        assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        this.statistics.clear();
+        this.orderService.fetchOrderHistory(this.user.getId(), cursor, PAGE_SIZE);
+        assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
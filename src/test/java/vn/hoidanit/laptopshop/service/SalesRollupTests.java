@@ -0,0 +1,108 @@
+package vn.hoidanit.laptopshop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import vn.hoidanit.laptopshop.config.CacheConfig;
+import vn.hoidanit.laptopshop.domain.Order;
+import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.SalesDaily;
+import vn.hoidanit.laptopshop.domain.User;
+import vn.hoidanit.laptopshop.domain.dto.SalesReportRowDTO;
+import vn.hoidanit.laptopshop.repository.SalesDailyRepository;
+
+/*
+ * sales_daily khớp với dashboard: không tính order CANCEL,
+ * order bị hủy / xóa / khôi phục sau khi đã rollup thì được trừ / cộng lại
+ * watermark bắt đầu ngay trước dữ liệu của test, rollup chỉ đọc vài dòng order_detail vừa tạo
+ */
+@DataJpaTest(properties = {
+        "laptopshop.rollup.commit-lag=PT0S",
+        "laptopshop.rollup.batch-size=100",
+        "laptopshop.rollup.max-batches-per-run=1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ OrderService.class, DashboardStatsService.class, SalesRollupService.class, CacheConfig.class })
+class SalesRollupTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private SalesDailyRepository salesDailyRepository;
+
+    private Product product;
+    private Order first;
+    private Order second;
+    private Order cancelled;
+
+    @BeforeEach
+    void setUp() {
+        TestData.startRollupAfterExistingRows(this.entityManager);
+        User user = TestData.user(this.entityManager, "rollup");
+        this.product = TestData.product(this.entityManager, "rollup", 1000);
+        this.first = TestData.order(this.entityManager, user, Order.STATUS_PENDING, this.product);
+        this.second = TestData.order(this.entityManager, user, Order.STATUS_COMPLETE, this.product);
+        this.cancelled = TestData.order(this.entityManager, user, Order.STATUS_CANCEL, this.product);
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        this.salesRollupService.rollup();
+    }
+
+    @Test
+    void skipsCancelledOrders() {
+        assertThat(revenueOfProduct()).isEqualTo(2000.0);
+    }
+
+    @Test
+    void compensatesStatusChangesAndDeletes() {
+        this.orderService.updateOrdersStatus(List.of(this.first.getId()), Order.STATUS_CANCEL);
+        assertThat(revenueOfProduct()).isEqualTo(1000.0);
+
+        this.orderService.deleteOrdersByIds(List.of(this.second.getId()));
+        assertThat(revenueOfProduct()).isEqualTo(0.0);
+
+        this.orderService.updateOrdersStatus(List.of(this.cancelled.getId(), this.first.getId()),
+                Order.STATUS_COMPLETE);
+        assertThat(revenueOfProduct()).isEqualTo(2000.0);
+
+        // không đụng tới dòng đã tính: rollup lần nữa không cộng thêm
+        this.salesRollupService.rollup();
+        assertThat(revenueOfProduct()).isEqualTo(2000.0);
+    }
+
+    @Test
+    void rejectsUnknownStatus() {
+        assertThatThrownBy(() -> this.orderService.updateOrdersStatus(List.of(this.first.getId()), "LOST"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> this.orderService.updateOrdersStatus(List.of(this.first.getId()), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private double revenueOfProduct() {
+        LocalDate today = LocalDate.now();
+        String key = String.valueOf(this.product.getId());
+        return this.salesDailyRepository.sumByKey(SalesDaily.DIMENSION_PRODUCT, today, today).stream()
+                .filter(row -> key.equals(row.getKey()))
+                .mapToDouble(SalesReportRowDTO::getRevenue)
+                .sum();
+    }
+}
@@ -0,0 +1,76 @@
+package vn.hoidanit.laptopshop.service;
+
+import java.util.UUID;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import vn.hoidanit.laptopshop.domain.Order;
+import vn.hoidanit.laptopshop.domain.OrderDetail;
+import vn.hoidanit.laptopshop.domain.Product;
+import vn.hoidanit.laptopshop.domain.RollupWatermark;
+import vn.hoidanit.laptopshop.domain.User;
+
+/*
+ * dữ liệu mẫu cho các test JPA (email ngẫu nhiên để không đụng dữ liệu có sẵn trong DB)
+ */
+final class TestData {
+
+    private TestData() {
+    }
+
+    static User user(TestEntityManager entityManager, String name) {
+        User user = new User();
+        user.setEmail(name + "-" + UUID.randomUUID() + "@test.local");
+        user.setPassword("password");
+        user.setFullName(name);
+        return entityManager.persist(user);
+    }
+
+    static Product product(TestEntityManager entityManager, String name, double price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(price);
+        product.setImage(name + ".png");
+        product.setDetailDesc(name);
+        product.setShortDesc(name);
+        product.setQuantity(100);
+        product.setFactory("TEST");
+        product.setTarget("TEST");
+        return entityManager.persist(product);
+    }
+
+    /*
+     * đặt watermark rollup ở order_detail lớn nhất hiện có: rollup trong test chỉ đọc dòng do test tạo,
+     * không quét (hay rebuild) dữ liệu có sẵn của DB dùng chung; gọi trước khi tạo order
+     */
+    static void startRollupAfterExistingRows(TestEntityManager entityManager) {
+        Long lastId = entityManager.getEntityManager()
+                .createQuery("select coalesce(max(od.id), 0) from OrderDetail od", Long.class)
+                .getSingleResult();
+        RollupWatermark watermark = new RollupWatermark();
+        watermark.setName(SalesRollupService.WATERMARK_NAME);
+        watermark.setLastId(lastId);
+        entityManager.merge(watermark);
+    }
+
+    static Order order(TestEntityManager entityManager, User user, String status, Product... products) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setStatus(status);
+        double total = 0;
+        for (Product product : products) {
+            total += product.getPrice();
+        }
+        order.setTotalPrice(total);
+        entityManager.persist(order);
+        for (Product product : products) {
+            OrderDetail detail = new OrderDetail();
+            detail.setOrder(order);
+            detail.setProduct(product);
+            detail.setQuantity(1);
+            detail.setPrice(product.getPrice());
+            entityManager.persist(detail);
+        }
+        return order;
+    }
+}
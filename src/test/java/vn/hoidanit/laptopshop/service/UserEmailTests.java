@@ -0,0 +1,70 @@
+package vn.hoidanit.laptopshop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+
+import vn.hoidanit.laptopshop.config.CacheConfig;
+import vn.hoidanit.laptopshop.domain.User;
+
+/*
+ * email trùng bị chặn bởi uk_users_email kể cả khi bloom filter không biết email đó (node khác đăng ký),
+ * và filter thấy email của node khác sau khi build lại
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ UserService.class, EmailBloomFilter.class, CacheConfig.class })
+class UserEmailTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmailBloomFilter emailBloomFilter;
+
+    @MockBean
+    private UserSearchService userSearchService;
+
+    @Test
+    void rejectsDuplicateEmailWithDifferentCase() {
+        String email = "dup-" + UUID.randomUUID() + "@test.local";
+        this.userService.handleSaveUser(newUser(email));
+
+        assertThatThrownBy(() -> this.userService.handleSaveUser(newUser(email.toUpperCase())))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void rebuildSeesEmailsSavedElsewhere() {
+        this.emailBloomFilter.rebuild();
+        // lưu thẳng vào DB, không qua UserService -> filter của node này không biết
+        User other = TestData.user(this.entityManager, "other-node");
+        this.entityManager.flush();
+
+        this.emailBloomFilter.rebuild();
+
+        assertThat(this.emailBloomFilter.mightContain(other.getEmail())).isTrue();
+        assertThat(this.userService.checkEmailExist(other.getEmail())).isTrue();
+    }
+
+    private static User newUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setFullName("duplicate");
+        return user;
+    }
+}
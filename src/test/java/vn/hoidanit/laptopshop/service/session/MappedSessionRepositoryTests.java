@@ -0,0 +1,185 @@
+package vn.hoidanit.laptopshop.service.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.session.MapSession;
+
+/*
+ * bảng băm trong file mmap: 8 slot nên dễ tạo va chạm / vòng qua cuối bảng
+ * id được chọn theo slot gốc (home) để biết trước entry nằm ở đâu
+ */
+class MappedSessionRepositoryTests {
+
+    private static final int SLOT_COUNT = 8;
+    private static final int SLOT_SIZE = 1024;
+    private static final Duration TIMEOUT = Duration.ofMinutes(30);
+    // sweeper nền không chạy trong lúc test, test gọi sweep() trực tiếp
+    private static final Duration SWEEP_INTERVAL = Duration.ofHours(1);
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private MappedSessionRepository repository;
+    private int nextId;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.file = this.dir.resolve("sessions.mmap");
+        this.repository = open(SLOT_COUNT);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.repository.close();
+    }
+
+    @Test
+    void savesAndFindsSession() {
+        MapSession session = this.repository.createSession();
+        session.setAttribute("cartSum", 3);
+
+        this.repository.save(session);
+        MapSession found = this.repository.findById(session.getId());
+
+        assertThat(found).isNotNull();
+        assertThat((Integer) found.getAttribute("cartSum")).isEqualTo(3);
+        assertThat(found.getMaxInactiveInterval()).isEqualTo(TIMEOUT);
+        assertThat(found.getLastAccessedTime().toEpochMilli())
+                .isEqualTo(session.getLastAccessedTime().toEpochMilli());
+    }
+
+    @Test
+    void keepsCollidingSessionsApart() {
+        String first = save(idWithHome(3), "first");
+        String second = save(idWithHome(3), "second");
+        String third = save(idWithHome(4), "third");
+
+        assertThat(valueOf(first)).isEqualTo("first");
+        assertThat(valueOf(second)).isEqualTo("second");
+        assertThat(valueOf(third)).isEqualTo("third");
+
+        // ghi lại session đã có thì dùng đúng slot cũ, không chiếm slot mới
+        save(second, "second-updated");
+        assertThat(valueOf(second)).isEqualTo("second-updated");
+        assertThat(valueOf(third)).isEqualTo("third");
+    }
+
+    @Test
+    void deleteShiftsEntriesBackAcrossWrapBoundary() {
+        // slot 6: a, 7: b (home 6), 0: c (home 0, đúng slot gốc), 1: d (home 7, vòng qua cuối bảng)
+        String a = save(idWithHome(6), "a");
+        String b = save(idWithHome(6), "b");
+        String c = save(idWithHome(0), "c");
+        String d = save(idWithHome(7), "d");
+
+        // b lùi về 6, c phải đứng yên ở slot 0, d lùi qua ranh giới về slot 7
+        this.repository.deleteById(a);
+
+        assertThat(this.repository.findById(a)).isNull();
+        assertThat(valueOf(b)).isEqualTo("b");
+        assertThat(valueOf(c)).isEqualTo("c");
+        assertThat(valueOf(d)).isEqualTo("d");
+
+        this.repository.deleteById(b);
+        assertThat(valueOf(c)).isEqualTo("c");
+        assertThat(valueOf(d)).isEqualTo("d");
+
+        // không còn slot nào bị giữ: lấp đầy lại bảng được
+        for (int i = 0; i < SLOT_COUNT - 2; i++) {
+            save(idWithHome(i), "fill-" + i);
+        }
+        assertThat(valueOf(c)).isEqualTo("c");
+        assertThat(valueOf(d)).isEqualTo("d");
+    }
+
+    @Test
+    void sweepRemovesExpiredSessionsAndKeepsChainsReachable() {
+        String expiredHead = saveExpired(idWithHome(6));
+        String expiredWrapped = saveExpired(idWithHome(6));
+        String live = save(idWithHome(6), "live");
+        String liveOther = save(idWithHome(0), "other");
+
+        this.repository.sweep();
+
+        assertThat(valueOf(live)).isEqualTo("live");
+        assertThat(valueOf(liveOther)).isEqualTo("other");
+        assertThat(this.repository.findById(expiredHead)).isNull();
+        assertThat(this.repository.findById(expiredWrapped)).isNull();
+
+        // 2 slot đã được trả lại: đủ chỗ cho SLOT_COUNT - 2 session mới
+        for (int i = 0; i < SLOT_COUNT - 2; i++) {
+            save(idWithHome(i), "fill-" + i);
+        }
+        assertThatThrownBy(() -> save(idWithHome(1), "overflow"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void keepsSessionsAfterRestart() throws IOException {
+        String first = save(idWithHome(7), "first");
+        String second = save(idWithHome(7), "second");
+
+        this.repository.close();
+        this.repository = open(SLOT_COUNT);
+
+        assertThat(valueOf(first)).isEqualTo("first");
+        assertThat(valueOf(second)).isEqualTo("second");
+    }
+
+    @Test
+    void dropsSessionsWhenSlotLayoutChanges() throws IOException {
+        String id = save(idWithHome(1), "value");
+
+        this.repository.close();
+        this.repository = open(SLOT_COUNT * 2);
+
+        assertThat(this.repository.findById(id)).isNull();
+    }
+
+    private MappedSessionRepository open(int slotCount) throws IOException {
+        return new MappedSessionRepository(this.file, slotCount, SLOT_SIZE, TIMEOUT, SWEEP_INTERVAL);
+    }
+
+    private String save(String id, String value) {
+        MapSession session = new MapSession(id);
+        session.setMaxInactiveInterval(TIMEOUT);
+        session.setAttribute("value", value);
+        this.repository.save(session);
+        return id;
+    }
+
+    private String saveExpired(String id) {
+        MapSession session = new MapSession(id);
+        session.setMaxInactiveInterval(Duration.ofMinutes(1));
+        session.setLastAccessedTime(Instant.now().minus(Duration.ofHours(1)));
+        this.repository.save(session);
+        return id;
+    }
+
+    private String valueOf(String id) {
+        MapSession session = this.repository.findById(id);
+        return session == null ? null : session.getAttribute("value");
+    }
+
+    // cùng hàm băm với MappedSessionRepository.hash
+    private String idWithHome(int home) {
+        while (true) {
+            String id = "session-" + this.nextId++;
+            int h = id.hashCode();
+            if (Math.floorMod(h ^ (h >>> 16), SLOT_COUNT) == home) {
+                return id;
+            }
+        }
+    }
+}